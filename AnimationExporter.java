@@ -0,0 +1,375 @@
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Trieda AnimationExporter ukladá priebeh generovania a hľadania cesty ako animáciu
+ * bez okna. Je to pozorovateľ bludiska, ktorý kreslí do obrázka GridRaster v pamäti
+ * a po každých frameSkip krokoch algoritmu zapíše snímok cez ImageIO.
+ *
+ * Snímky sa hneď zapisujú do súboru, v pamäti je vždy len jeden obrázok.
+ * Animovaný GIF obsahuje po prvom snímku len zmenenú oblasť obrázka,
+ * pri postupnosti PNG je každý snímok celý obrázok s indexovanými farbami.
+ * Spustiť sa dá aj z príkazového riadku (metóda main).
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class AnimationExporter implements MazeListener, Closeable {
+    // Formát metadát snímku v zapisovači GIF
+    private static final String GIF_FORMAT = "javax_imageio_gif_image_1.0";
+    // Predvolená dĺžka snímku (25 snímok za sekundu)
+    private static final int DEFAULT_DELAY_MILLIS = 40;
+    // Predvolený počet snímok na jeden beh algoritmu
+    private static final int DEFAULT_FRAMES_PER_RUN = 250;
+
+    private final MazeGrid grid;
+    private final GridRaster raster;
+    // Pixely obrázka bludiska
+    private final int[] pixels;
+    // Farby palety pre prevod pixelov na indexy
+    private final int[] colors;
+    // Obrázok s indexovanými farbami, ktorý sa zapisuje
+    private final BufferedImage indexed;
+    private final byte[] indexedPixels;
+    // Zmenená oblasť od posledného snímku
+    private final Rectangle dirtyArea;
+
+    // Počet krokov algoritmu medzi snímkami
+    private final int frameSkip;
+    private final int delayMillis;
+
+    // Zápis do GIF, null pri postupnosti PNG
+    private ImageWriter gifWriter;
+    private ImageOutputStream gifOutput;
+    // Adresár pre postupnosť PNG, null pri GIF
+    private File directory;
+
+    private int stepsInFrame;
+    private int frameCount;
+
+    private AnimationExporter(MazeGrid grid, int width, int height, int frameSkip, int delayMillis) {
+        if (frameSkip < 1) {
+            throw new IllegalArgumentException("Počet krokov na snímok musí byť aspoň 1: " + frameSkip);
+        }
+        this.grid = grid;
+        this.raster = new GridRaster(grid, width, height);
+        this.pixels = ((DataBufferInt)this.raster.getImage().getRaster().getDataBuffer()).getData();
+        IndexColorModel colorModel = GridRaster.createColorModel();
+        this.colors = new int[colorModel.getMapSize()];
+        colorModel.getRGBs(this.colors);
+        this.indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        this.indexedPixels = ((DataBufferByte)this.indexed.getRaster().getDataBuffer()).getData();
+        this.dirtyArea = new Rectangle();
+        this.frameSkip = frameSkip;
+        this.delayMillis = delayMillis;
+        this.stepsInFrame = 0;
+        this.frameCount = 0;
+        this.raster.rasterAll();
+    }
+
+    /**
+     * Vytvorí export do animovaného GIF, ktorý sa prehráva dokola.
+     *
+     * @param grid Mriežka bludiska.
+     * @param width Šírka animácie v pixeloch.
+     * @param height Výška animácie v pixeloch.
+     * @param file Výstupný súbor.
+     * @param frameSkip Počet krokov algoritmu na jeden snímok.
+     * @param delayMillis Dĺžka jedného snímku v milisekundách.
+     * @return Export, ktorý sa musí po skončení zatvoriť.
+     * @throws IOException Ak sa súbor nedá vytvoriť.
+     */
+    public static AnimationExporter toGif(MazeGrid grid, int width, int height, File file, int frameSkip, int delayMillis) throws IOException {
+        AnimationExporter exporter = new AnimationExporter(grid, width, height, frameSkip, delayMillis);
+        file.delete();
+        exporter.gifOutput = ImageIO.createImageOutputStream(file);
+        if (exporter.gifOutput == null) {
+            throw new IOException("Súbor " + file + " sa nedá vytvoriť");
+        }
+        exporter.gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+        exporter.gifWriter.setOutput(exporter.gifOutput);
+        exporter.gifWriter.prepareWriteSequence(null);
+        return exporter;
+    }
+
+    /**
+     * Vytvorí export do postupnosti obrázkov PNG (snimka_00000.png, snimka_00001.png, ...).
+     *
+     * @param grid Mriežka bludiska.
+     * @param width Šírka obrázkov v pixeloch.
+     * @param height Výška obrázkov v pixeloch.
+     * @param directory Adresár pre obrázky, vytvorí sa, ak neexistuje.
+     * @param frameSkip Počet krokov algoritmu na jeden snímok.
+     * @return Export, ktorý sa musí po skončení zatvoriť.
+     * @throws IOException Ak sa adresár nedá vytvoriť.
+     */
+    public static AnimationExporter toPngSequence(MazeGrid grid, int width, int height, File directory, int frameSkip) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Adresár " + directory + " sa nedá vytvoriť");
+        }
+        AnimationExporter exporter = new AnimationExporter(grid, width, height, frameSkip, DEFAULT_DELAY_MILLIS);
+        exporter.directory = directory;
+        return exporter;
+    }
+
+    @Override
+    public void cellColorChanged(int cell, Farby farba) {
+        if (this.raster.setState(cell, farba)) {
+            this.raster.rasterCell(cell);
+        }
+    }
+
+    @Override
+    public void passageOpened(int cell, int neighbour) {
+        this.raster.rasterPassage(cell, neighbour);
+    }
+
+    @Override
+    public void mazeCleared() {
+        this.raster.setAllStates(Farby.CIERNA);
+        this.raster.wallsChanged();
+        this.raster.rasterAll();
+    }
+
+    @Override
+    public void colorsReset() {
+        this.raster.clearStates();
+    }
+
+    @Override
+    public void wallsChanged() {
+        this.raster.wallsChanged();
+        this.raster.rasterAll();
+    }
+
+    @Override
+    public void stepFinished() {
+        if (++this.stepsInFrame >= this.frameSkip) {
+            this.stepsInFrame = 0;
+            try {
+                this.writeFrame();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Prehrá záznam a uloží ho ako animáciu, jeden snímok po každých frameSkip udalostiach.
+     * Mriežka exportu musí mať rovnaké rozmery ako záznam.
+     *
+     * @param log Záznam priebehu algoritmov.
+     * @throws IOException Ak zápis snímku zlyhá.
+     */
+    public void replay(StepLog log) throws IOException {
+        StepReplayer replayer = new StepReplayer(log, this.grid, this);
+        this.writeFrame();
+        while (replayer.advance(this.frameSkip) > 0) {
+            this.writeFrame();
+        }
+    }
+
+    /**
+     * Zapíše snímok, ak sa obrázok od posledného snímku zmenil.
+     *
+     * @throws IOException Ak zápis snímku zlyhá.
+     */
+    public void writeFrame() throws IOException {
+        if (!this.raster.takeDirtyArea(this.dirtyArea)) {
+            return;
+        }
+        if (this.frameCount == 0) {
+            // Prvý snímok určuje rozmery animácie, preto je vždy celý
+            this.dirtyArea.setBounds(0, 0, this.indexed.getWidth(), this.indexed.getHeight());
+        }
+        this.convert(this.dirtyArea);
+
+        if (this.gifWriter != null) {
+            BufferedImage frame = this.indexed.getSubimage(this.dirtyArea.x, this.dirtyArea.y, this.dirtyArea.width, this.dirtyArea.height);
+            this.gifWriter.writeToSequence(new IIOImage(frame, null, this.createGifMetadata(frame)), null);
+        } else {
+            ImageIO.write(this.indexed, "png", new File(this.directory, String.format("snimka_%05d.png", this.frameCount)));
+        }
+        this.frameCount++;
+    }
+
+    /**
+     * Vracia počet zapísaných snímok.
+     *
+     * @return Počet snímok.
+     */
+    public int getFrameCount() {
+        return this.frameCount;
+    }
+
+    /**
+     * Zapíše posledný snímok a uzavrie výstup.
+     *
+     * @throws IOException Ak zápis zlyhá.
+     */
+    @Override
+    public void close() throws IOException {
+        this.writeFrame();
+        if (this.gifWriter != null) {
+            this.gifWriter.endWriteSequence();
+            this.gifOutput.close();
+            this.gifWriter.dispose();
+            this.gifWriter = null;
+        }
+    }
+
+    /**
+     * Prevedie pixely oblasti na indexy farieb palety.
+     */
+    private void convert(Rectangle area) {
+        int width = this.indexed.getWidth();
+        int lastColor = this.colors[0];
+        byte lastIndex = 0;
+        for (int y = area.y; y < area.y + area.height; y++) {
+            int offset = y * width;
+            for (int x = offset + area.x; x < offset + area.x + area.width; x++) {
+                int color = this.pixels[x];
+                if (color != lastColor) {
+                    lastColor = color;
+                    lastIndex = this.indexOf(color);
+                }
+                this.indexedPixels[x] = lastIndex;
+            }
+        }
+    }
+
+    /**
+     * Vracia index farby v palete.
+     */
+    private byte indexOf(int color) {
+        for (int i = 0; i < this.colors.length; i++) {
+            if (this.colors[i] == color) {
+                return (byte)i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Vytvorí metadáta snímku GIF: dĺžku snímku, polohu zmenenej oblasti
+     * a pri prvom snímku prehrávanie dokola.
+     */
+    private IIOMetadata createGifMetadata(BufferedImage frame) throws IOException {
+        IIOMetadata metadata = this.gifWriter.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(frame), null);
+        IIOMetadataNode root = (IIOMetadataNode)metadata.getAsTree(GIF_FORMAT);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "doNotDispose");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(Math.max(1, this.delayMillis / 10)));
+        control.setAttribute("transparentColorIndex", "0");
+
+        IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+        descriptor.setAttribute("imageLeftPosition", Integer.toString(this.dirtyArea.x));
+        descriptor.setAttribute("imageTopPosition", Integer.toString(this.dirtyArea.y));
+
+        if (this.frameCount == 0) {
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});
+            child(root, "ApplicationExtensions").appendChild(loop);
+        }
+
+        metadata.setFromTree(GIF_FORMAT, root);
+        return metadata;
+    }
+
+    /**
+     * Nájde alebo vytvorí potomka uzla metadát s daným menom.
+     */
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode)parent.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        parent.appendChild(node);
+        return node;
+    }
+
+    /**
+     * Vygeneruje bludisko, nájde v ňom cestu algoritmom BFS a uloží to ako animáciu.
+     * Výstup s príponou .gif je animovaný GIF, inak adresár s postupnosťou PNG.
+     *
+     * Použitie: AnimationExporter výstup [riadky] [stĺpce] [kroky na snímok] [veľkosť] [generátor] [semienko]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Použitie: AnimationExporter výstup [riadky] [stĺpce] [kroky na snímok] [veľkosť] [generátor] [semienko]");
+            return;
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        File output = new File(args[0]);
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int columns = args.length > 2 ? Integer.parseInt(args[2]) : rows;
+        int cellCount = rows * columns;
+        int frameSkip = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, (cellCount + DEFAULT_FRAMES_PER_RUN - 1) / DEFAULT_FRAMES_PER_RUN);
+        int size = args.length > 4 ? Integer.parseInt(args[4]) : 800;
+        MazeGenerator generator = args.length > 5 ? findGenerator(args[5]) : new DepthFirstGenerator();
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : new SplittableRandom().nextLong();
+
+        Maze maze = new Maze(rows, columns);
+        maze.setGenerator(generator);
+        long start = System.nanoTime();
+        AnimationExporter exporter = output.getName().toLowerCase().endsWith(".gif")
+            ? toGif(maze.getGrid(), size, size, output, frameSkip, DEFAULT_DELAY_MILLIS)
+            : toPngSequence(maze.getGrid(), size, size, output, frameSkip);
+        try {
+            maze.addListener(exporter);
+            maze.mazePathGenerator(seed);
+            exporter.writeFrame();
+            maze.bfsAlg();
+        } finally {
+            exporter.close();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(generator + " " + rows + "x" + columns + ", semienko " + seed + ": "
+            + exporter.getFrameCount() + " snímok za " + millis + " ms -> " + output);
+    }
+
+    /**
+     * Nájde generátor podľa mena (bez ohľadu na veľkosť písmen).
+     */
+    private static MazeGenerator findGenerator(String name) {
+        MazeGenerator[] generators = {
+            new DepthFirstGenerator(),
+            new KruskalGenerator(),
+            new PrimGenerator(),
+            new WilsonGenerator(),
+            new EllerGenerator(),
+            new ParallelTiledGenerator(),
+            new SidewinderGenerator(),
+            new BinaryTreeGenerator()
+        };
+        for (MazeGenerator generator : generators) {
+            if (generator.toString().equalsIgnoreCase(name)) {
+                return generator;
+            }
+        }
+        throw new IllegalArgumentException("Neznámy generátor: " + name);
+    }
+}
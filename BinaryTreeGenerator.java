@@ -0,0 +1,48 @@
+import java.util.SplittableRandom;
+
+/**
+ * Trieda BinaryTreeGenerator generuje bludisko algoritmom binárneho stromu.
+ * Každý blok nezávisle prerazí priechod buď nahor, alebo doľava. Nepotrebuje
+ * žiadnu pomocnú pamäť a je najrýchlejší zo všetkých generátorov, bludisko však
+ * má výrazné skreslenie (horný riadok a ľavý stĺpec sú rovné chodby).
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class BinaryTreeGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int columns = grid.getColumns();
+        int cellCount = grid.getCellCount();
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            boolean canGoUp = cell >= columns;
+            boolean canGoLeft = cell % columns > 0;
+
+            int neighbour = -1;
+            if (canGoUp && (!canGoLeft || random.nextBoolean())) {
+                neighbour = cell - columns;
+            } else if (canGoLeft) {
+                neighbour = cell - 1;
+            }
+
+            if (neighbour != -1) {
+                grid.openPassage(cell, neighbour);
+            }
+            if (listener != null) {
+                if (neighbour != -1) {
+                    listener.passageOpened(cell, neighbour);
+                }
+                listener.cellColorChanged(cell, Farby.MODRA);
+                listener.stepFinished();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Binary tree";
+    }
+}
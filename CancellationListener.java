@@ -0,0 +1,40 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * Trieda CancellationListener je pozorovateľ bez vizualizácie, ktorý len po každom
+ * kroku algoritmu overí, či vlákno algoritmu nebolo prerušené, a vtedy algoritmus
+ * zruší výnimkou CancellationException. Bludisko ho odovzdá generátorom a riešiteľom,
+ * keď nemá pripojeného žiadneho pozorovateľa, takže sa dá zrušiť aj beh bez okna.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class CancellationListener implements MazeListener {
+
+    @Override
+    public void cellColorChanged(int cell, Farby farba) {
+    }
+
+    @Override
+    public void passageOpened(int cell, int neighbour) {
+    }
+
+    @Override
+    public void mazeCleared() {
+    }
+
+    @Override
+    public void colorsReset() {
+    }
+
+    @Override
+    public void wallsChanged() {
+    }
+
+    @Override
+    public void stepFinished() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Algoritmus bol zrušený");
+        }
+    }
+}
@@ -1,16 +1,22 @@
 import javax.swing.JSlider;
 import javax.swing.JLabel;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.BoxLayout;
 import javax.swing.Box;
+import javax.swing.Timer;
 import java.awt.FlowLayout;
 
 
 public class ControlPanel {
     private JSlider rychlostSlider;
     private JLabel rychlostLabel;
+    private JSlider krokySlider;
+    private JLabel krokyLabel;
+    private JCheckBox autoKrokyCheckBox;
     private JButton generateMazeButton;
     private JButton resetMazeButton;
     private JButton dijkstraButton;
@@ -18,6 +24,17 @@ public class ControlPanel {
     private JButton aStarButton;
     private JButton bfsButton;
     private JButton playerButton;
+    private JButton stopButton;
+    private JButton raceButton;
+    private JComboBox<MazeGenerator> generatorComboBox;
+    private JCheckBox nahravatCheckBox;
+    private JSlider zaznamSlider;
+    private JLabel zaznamLabel;
+    private JButton dozaduButton;
+    private JButton pauzaButton;
+    private JButton dopreduButton;
+    // true, kým sa posuvník záznamu nastavuje podľa prehrávania
+    private boolean obnovujeSa;
 
     private GameEngine gameEngine;
 
@@ -34,32 +51,90 @@ public class ControlPanel {
             this.gameEngine.setTikSpeed(novaRychlost);
             this.rychlostLabel.setText("Rýchlosť: " + novaRychlost);
         });
-        
+
+        // Počet krokov algoritmu na jeden snímok, 0 = bez obmedzenia
+        this.krokyLabel = new JLabel("Krokov na snímok: ∞");
+        this.krokySlider = new JSlider(0, 1000, 0);
+        this.krokySlider.addChangeListener(e -> {
+            this.gameEngine.setStepsPerFrame(this.krokySlider.getValue());
+            this.updateKrokyLabel();
+        });
+        this.autoKrokyCheckBox = new JCheckBox("Auto");
+        this.autoKrokyCheckBox.setFocusable(false);
+        this.autoKrokyCheckBox.addActionListener(e -> {
+            boolean auto = this.autoKrokyCheckBox.isSelected();
+            if (auto) {
+                this.gameEngine.setAutoStepsPerFrame(true);
+            } else {
+                this.gameEngine.setStepsPerFrame(this.krokySlider.getValue());
+            }
+            this.krokySlider.setEnabled(!auto);
+            this.updateKrokyLabel();
+        });
+
+        this.generatorComboBox = new JComboBox<>(new MazeGenerator[] {
+            new DepthFirstGenerator(),
+            new KruskalGenerator(),
+            new PrimGenerator(),
+            new WilsonGenerator(),
+            new EllerGenerator(),
+            // V hernom okne sa dlaždice vizualizujú, preto sa generujú postupne
+            new ParallelTiledGenerator(),
+            new SidewinderGenerator(),
+            new BinaryTreeGenerator()
+        });
+        this.generatorComboBox.addActionListener(e -> 
+            this.gameEngine.setMazeGenerator((MazeGenerator)this.generatorComboBox.getSelectedItem()));
+
+        // Nahrávanie a prehrávanie priebehu algoritmov
+        this.nahravatCheckBox = new JCheckBox("Nahrávať");
+        this.nahravatCheckBox.setFocusable(false);
+        this.nahravatCheckBox.addActionListener(e -> this.gameEngine.setRecording(this.nahravatCheckBox.isSelected()));
+        this.zaznamLabel = new JLabel("0 / 0");
+        this.zaznamSlider = new JSlider(0, 0, 0);
+        this.zaznamSlider.setFocusable(false);
+        this.zaznamSlider.addChangeListener(e -> {
+            if (!this.obnovujeSa) {
+                this.gameEngine.seekReplay(this.zaznamSlider.getValue());
+            }
+        });
+        this.dozaduButton = new JButton("◀");
+        this.dozaduButton.addActionListener(e -> this.gameEngine.playReplay(false));
+        this.pauzaButton = new JButton("❚❚");
+        this.pauzaButton.addActionListener(e -> this.gameEngine.pauseReplay());
+        this.dopreduButton = new JButton("▶");
+        this.dopreduButton.addActionListener(e -> this.gameEngine.playReplay(true));
 
         this.generateMazeButton = new JButton("Generate Maze");
-        this.generateMazeButton.addActionListener(e -> new Thread(gameEngine::generateMaze).start());
+        this.generateMazeButton.addActionListener(e -> this.gameEngine.generateMaze());
 
         this.resetMazeButton = new JButton("Reset Maze");
-        this.resetMazeButton.addActionListener(e -> new Thread(gameEngine::resetMaze).start());
+        this.resetMazeButton.addActionListener(e -> this.gameEngine.resetMaze());
 
         this.dijkstraButton = new JButton("Dijkstra Algorithm");
-        this.dijkstraButton.addActionListener(e -> new Thread(gameEngine::dijkstraAlgorithm).start());
+        this.dijkstraButton.addActionListener(e -> this.gameEngine.dijkstraAlgorithm());
 
         this.mazeExitButton = new JButton("Show Maze Exit");
-        this.mazeExitButton.addActionListener(e -> new Thread(gameEngine::toggleMazeEntryAndExitDisplay).start());
+        this.mazeExitButton.addActionListener(e -> this.gameEngine.toggleMazeEntryAndExitDisplay());
 
         this.aStarButton = new JButton("A*");
-        this.aStarButton.addActionListener(e -> new Thread(gameEngine::aStarAlgorithm).start());
+        this.aStarButton.addActionListener(e -> this.gameEngine.aStarAlgorithm());
 
         this.bfsButton = new JButton("BFS");
-        this.bfsButton.addActionListener(e -> new Thread(gameEngine::bfsAlgorithm).start());
+        this.bfsButton.addActionListener(e -> this.gameEngine.bfsAlgorithm());
+
+        this.stopButton = new JButton("Stop");
+        this.stopButton.addActionListener(e -> this.gameEngine.stopAlgorithm());
+
+        this.raceButton = new JButton("Závod");
+        this.raceButton.addActionListener(e -> this.gameEngine.raceAlgorithms());
 
         this.playerButton = new JButton("Spawn Player");
-        this.playerButton.addActionListener(e -> new Thread(gameEngine::spawnPlayer).start());
+        this.playerButton.addActionListener(e -> this.gameEngine.spawnPlayer());
 
         JFrame frame = new JFrame("Ovládací Panel");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(400, 250);
+        frame.setSize(400, 380);
 
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
@@ -69,6 +144,26 @@ public class ControlPanel {
         sliderPanel.add(this.rychlostLabel);
         sliderPanel.add(this.rychlostSlider);
 
+        JPanel krokyPanel = new JPanel();
+        krokyPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        krokyPanel.add(this.krokyLabel);
+        krokyPanel.add(this.krokySlider);
+        krokyPanel.add(this.autoKrokyCheckBox);
+
+        JPanel generatorPanel = new JPanel();
+        generatorPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        generatorPanel.add(new JLabel("Generátor: "));
+        generatorPanel.add(this.generatorComboBox);
+
+        JPanel zaznamPanel = new JPanel();
+        zaznamPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        zaznamPanel.add(this.nahravatCheckBox);
+        zaznamPanel.add(this.dozaduButton);
+        zaznamPanel.add(this.pauzaButton);
+        zaznamPanel.add(this.dopreduButton);
+        zaznamPanel.add(this.zaznamSlider);
+        zaznamPanel.add(this.zaznamLabel);
+
         JPanel buttonPanel = new JPanel();
         buttonPanel.setLayout(new FlowLayout(FlowLayout.CENTER, 10, 0));
         buttonPanel.add(this.generateMazeButton);
@@ -76,15 +171,51 @@ public class ControlPanel {
         buttonPanel.add(this.dijkstraButton);
         buttonPanel.add(this.aStarButton);
         buttonPanel.add(this.bfsButton);
+        buttonPanel.add(this.stopButton);
+        buttonPanel.add(this.raceButton);
         buttonPanel.add(this.playerButton);
         buttonPanel.add(this.mazeExitButton);
 
         panel.add(sliderPanel);
         panel.add(Box.createVerticalStrut(5));
+        panel.add(krokyPanel);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(generatorPanel);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(zaznamPanel);
+        panel.add(Box.createVerticalStrut(5));
         panel.add(buttonPanel);
 
         frame.add(panel);
         frame.setFocusable(false); 
         frame.setVisible(true);
+
+        // Posuvník záznamu sleduje nahrávanie aj prehrávanie
+        new Timer(100, e -> this.updateZaznam()).start();
+    }
+
+    /**
+     * Nastaví posuvník a popis záznamu podľa aktuálnej pozície prehrávania.
+     */
+    private void updateZaznam() {
+        int dlzka = this.gameEngine.getReplayLength();
+        int pozicia = this.gameEngine.getReplayPosition();
+        this.obnovujeSa = true;
+        this.zaznamSlider.setMaximum(dlzka);
+        if (!this.zaznamSlider.getValueIsAdjusting()) {
+            this.zaznamSlider.setValue(pozicia);
+        }
+        this.obnovujeSa = false;
+        this.zaznamLabel.setText(pozicia + " / " + dlzka);
+        this.nahravatCheckBox.setSelected(this.gameEngine.isRecording());
+        this.stopButton.setEnabled(this.gameEngine.isRunning());
+    }
+
+    /**
+     * Zobrazí aktuálny počet krokov na snímok.
+     */
+    private void updateKrokyLabel() {
+        int kroky = this.gameEngine.getStepsPerFrame();
+        this.krokyLabel.setText("Krokov na snímok: " + (kroky == 0 ? "∞" : String.valueOf(kroky)));
     }
 }
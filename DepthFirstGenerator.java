@@ -0,0 +1,114 @@
+import java.util.SplittableRandom;
+
+/**
+ * Trieda DepthFirstGenerator generuje bludisko iteratívnym Depth First Search
+ * algoritmom s návratom (recursive backtracker). Zásobník je pole int[],
+ * susedia sa vyberajú z pevného pomocného poľa, takže sa na jednotlivé kroky nič nealokuje.
+ * Vytvára dlhé kľukaté chodby s malým počtom slepých uličiek.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class DepthFirstGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cellCount = grid.getCellCount();
+
+        long[] visitedCells = new long[(cellCount + 63) >>> 6];
+        int[] stack = new int[cellCount];
+        int[] validMoves = new int[4];
+        int stackSize = 0;
+
+        stack[stackSize++] = startCell;
+        visitedCells[startCell >>> 6] |= 1L << startCell;
+        if (listener != null) {
+            listener.cellColorChanged(startCell, Farby.CERVENA);
+        }
+
+        // Hlavný cyklus generácie bludiska
+        while (stackSize > 0) {
+            int currentCell = stack[stackSize - 1];
+
+            // Získanie platných pohybov z aktuálneho bloku
+            int count = this.nextValidMoves(grid, visitedCells, currentCell, validMoves);
+
+            if (count > 0) {
+                // Vyber náhodný platný pohyb a prerazenie cestičky
+                int nextCell = validMoves[random.nextInt(count)];
+                grid.openPassage(currentCell, nextCell);
+                visitedCells[nextCell >>> 6] |= 1L << nextCell;
+                stack[stackSize++] = nextCell;
+
+                if (listener != null) {
+                    listener.passageOpened(currentCell, nextCell);
+                    listener.cellColorChanged(currentCell, Farby.MODRA);
+                    listener.cellColorChanged(nextCell, Farby.CERVENA);
+                }
+            } else {
+                // Ak sa nemáme kam pohnúť, vraciame sa späť
+                stackSize--;
+
+                if (listener != null) {
+                    listener.cellColorChanged(currentCell, Farby.CIERNA);
+                    // Ak je v stacku ešte nejaký blok, nastavíme jeho farbu na červenú
+                    if (stackSize > 0) {
+                        listener.cellColorChanged(stack[stackSize - 1], Farby.CERVENA);
+                    }
+                }
+            }
+
+            if (listener != null) {
+                listener.stepFinished();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DFS";
+    }
+
+    /**
+     * Zapíše do poľa nenavštívené susedné bloky daného bloku.
+     *
+     * @return Počet platných pohybov.
+     */
+    private int nextValidMoves(MazeGrid grid, long[] visitedCells, int currentCell, int[] possibleMovement) {
+        int columns = grid.getColumns();
+        int currentRow = grid.rowOf(currentCell);
+        int currentColumn = currentCell - currentRow * columns;
+
+        // Logika pre validný pohyb
+        boolean canGoLeft = currentColumn > 0;
+        boolean canGoRight = currentColumn < columns - 1;
+        boolean canGoUp = currentRow > 0;
+        boolean canGoDown = currentRow < grid.getRows() - 1;
+
+        int count = 0;
+
+        // Kontrola pre korektný pohyb
+        if (canGoUp && !isSet(visitedCells, currentCell - columns)) {
+            possibleMovement[count++] = currentCell - columns;
+        }
+        if (canGoLeft && !isSet(visitedCells, currentCell - 1)) {
+            possibleMovement[count++] = currentCell - 1;
+        }
+        if (canGoDown && !isSet(visitedCells, currentCell + columns)) {
+            possibleMovement[count++] = currentCell + columns;
+        }
+        if (canGoRight && !isSet(visitedCells, currentCell + 1)) {
+            possibleMovement[count++] = currentCell + 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Vracia true, ak je v bitovej množine nastavený daný blok.
+     */
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
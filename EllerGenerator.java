@@ -0,0 +1,136 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Trieda EllerGenerator generuje bludisko Ellerovým algoritmom riadok po riadku.
+ * Pamätá si len množiny blokov aktuálneho riadku, takže pamäť je O(počet stĺpcov)
+ * bez ohľadu na počet riadkov. Každý hotový riadok sa odovzdá príjemcovi
+ * (MazeRowSink), napr. do mriežky, do súboru alebo inému spracovaniu.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class EllerGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        this.generate(grid.getRows(), grid.getColumns(), seed, new GridRowSink(grid, listener));
+    }
+
+    /**
+     * Vygeneruje bludisko daných rozmerov a postupne odovzdá jeho riadky príjemcovi.
+     * Rovnaké semienko vždy vytvorí rovnaké bludisko.
+     *
+     * @param rows Počet riadkov.
+     * @param columns Počet stĺpcov.
+     * @param seed 64-bitové semienko generátora náhodných čísel.
+     * @param sink Príjemca hotových riadkov.
+     */
+    public void generate(int rows, int columns, long seed, MazeRowSink sink) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Neplatné rozmery bludiska: " + rows + "x" + columns);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // Množina každého bloku riadku, -1 znamená nový blok bez množiny
+        int[] label = new int[columns];
+        // Union-find nad množinami aktuálneho riadku
+        int[] parent = new int[columns];
+        // Prečíslovanie množín z predchádzajúceho riadku
+        int[] remap = new int[columns];
+        // Počet blokov množiny a náhodne vybraný blok množiny pre priechod dole
+        int[] memberCount = new int[columns];
+        int[] candidate = new int[columns];
+        boolean[] hasDown = new boolean[columns];
+
+        long[] rightPassages = new long[(columns + 63) >>> 6];
+        long[] downPassages = new long[(columns + 63) >>> 6];
+
+        Arrays.fill(label, -1);
+
+        for (int row = 0; row < rows; row++) {
+            boolean lastRow = row == rows - 1;
+            Arrays.fill(rightPassages, 0L);
+            Arrays.fill(downPassages, 0L);
+
+            // Prečíslovanie množín na 0..columns-1, nové bloky dostanú vlastnú množinu
+            Arrays.fill(remap, -1);
+            int nextLabel = 0;
+            for (int column = 0; column < columns; column++) {
+                int old = label[column];
+                if (old == -1) {
+                    label[column] = nextLabel++;
+                } else {
+                    if (remap[old] == -1) {
+                        remap[old] = nextLabel++;
+                    }
+                    label[column] = remap[old];
+                }
+            }
+            for (int set = 0; set < nextLabel; set++) {
+                parent[set] = set;
+            }
+
+            // Vodorovné spájanie susedných blokov z rôznych množín
+            for (int column = 0; column < columns - 1; column++) {
+                int rootA = find(parent, label[column]);
+                int rootB = find(parent, label[column + 1]);
+                if (rootA != rootB && (lastRow || random.nextBoolean())) {
+                    parent[rootB] = rootA;
+                    rightPassages[column >>> 6] |= 1L << column;
+                }
+            }
+
+            if (!lastRow) {
+                // Náhodné priechody dole, každá množina musí mať aspoň jeden
+                Arrays.fill(memberCount, 0, nextLabel, 0);
+                Arrays.fill(hasDown, 0, nextLabel, false);
+                for (int column = 0; column < columns; column++) {
+                    int root = find(parent, label[column]);
+                    label[column] = root;
+                    memberCount[root]++;
+                    // Rovnomerný výber jedného bloku množiny (reservoir sampling)
+                    if (random.nextInt(memberCount[root]) == 0) {
+                        candidate[root] = column;
+                    }
+                    if (random.nextBoolean()) {
+                        hasDown[root] = true;
+                        downPassages[column >>> 6] |= 1L << column;
+                    }
+                }
+                for (int column = 0; column < columns; column++) {
+                    int root = label[column];
+                    if (!hasDown[root]) {
+                        hasDown[root] = true;
+                        downPassages[candidate[root] >>> 6] |= 1L << candidate[root];
+                    }
+                }
+
+                // Do ďalšieho riadku pokračujú len bloky s priechodom dole
+                for (int column = 0; column < columns; column++) {
+                    if ((downPassages[column >>> 6] & (1L << column)) == 0) {
+                        label[column] = -1;
+                    }
+                }
+            }
+
+            sink.rowFinished(row, rightPassages, downPassages);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Eller";
+    }
+
+    /**
+     * Nájde koreň množiny a skráti cestu ku koreňu (path halving).
+     */
+    private static int find(int[] parent, int set) {
+        while (parent[set] != set) {
+            parent[set] = parent[parent[set]];
+            set = parent[set];
+        }
+        return set;
+    }
+}
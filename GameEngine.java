@@ -1,14 +1,29 @@
 import java.awt.KeyboardFocusManager;
 import java.awt.event.KeyEvent;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Trieda GameEngine spravuje hernú logiku labyrintu, vrátane generovania bludiska,
  * ovládania hráča a spúšťania rôznych algoritmov na prechod bludiskom.
+ * Priebeh algoritmov sa dá nahrať a prehrať dopredu aj dozadu po snímkach herného okna.
+ * Generovanie a algoritmy bežia postupne v jednom vlákne enginu a dajú sa zrušiť.
+ * V režime závodu bežia algoritmy naraz v samostatnom okne.
  * 
  * @autor Denis Úradník
- * @verzia 0.4.3
+ * @verzia 0.5.3
  */
 public class GameEngine {
+    // Veľkosť obrázka jedného algoritmu v okne závodu
+    private static final int RACE_LANE_SIZE = 400;
+    private static final Logger LOGGER = Logger.getLogger(GameEngine.class.getName());
 
     // Herné okno
     private Platno gameWindow;
@@ -19,15 +34,25 @@ public class GameEngine {
     // Hráč
     private Player player;
     private Pohyb pohyb;
-    // Štartovací blok bludiska
-    private Block startingBlock;
 
     // Stav generovania bludiska
-    private boolean isMazeGenerated;
+    private volatile boolean isMazeGenerated;
     // Zobrazenie vstupu a výstupu bludiska
     private boolean showMazeEntryAndExit;
-    // Indikátor spúšťania algoritmu
-    private boolean isRunningAlgorithm;
+
+    // Jediné vlákno, v ktorom bežia generátory a algoritmy, takže sa nikdy neprekrývajú
+    private final ExecutorService executor;
+    // Práve bežiaci alebo čakajúci beh, null ak engine nič nerobí
+    private final AtomicReference<FutureTask<Void>> currentRun;
+
+    // Nahrávanie priebehu algoritmov, null ak sa nenahráva
+    private StepRecorder recorder;
+    // Posledný dokončený záznam
+    private StepLog lastLog;
+    // Prehrávač záznamu, null ak sa záznam neprehráva
+    private StepReplayer replayer;
+    // Smer prehrávania: 1 dopredu, -1 dozadu, 0 pozastavené
+    private int replayDirection;
 
     /**
      * Konštruktor inicializuje herný engine s danými parametrami,
@@ -41,13 +66,18 @@ public class GameEngine {
     public GameEngine(int velkostPlatnaX, int velkostPlatnaY, int rows, int columns) {
         this.isMazeGenerated = false;
         this.showMazeEntryAndExit = false;
-        this.isRunningAlgorithm = false;
+        this.executor = Executors.newSingleThreadExecutor(createThreadFactory());
+        this.currentRun = new AtomicReference<>();
 
         // Inicializácia herného okna a bludiska
         this.gameWindow = Platno.dajPlatno("Labyrint", "Labyrint", velkostPlatnaX, velkostPlatnaY);
-        this.maze = new Maze(rows, columns, velkostPlatnaX, velkostPlatnaY);
+        this.maze = new Maze(rows, columns);
+        this.maze.addListener(new GridRenderer(this.maze, velkostPlatnaX, velkostPlatnaY));
+        // Tempo krokov na snímok sa riadi snímkami herného okna
+        this.gameWindow.addFrameListener(e -> this.maze.getPacer().frameRendered());
+        // Prehrávanie záznamu postupuje po snímkach herného okna
+        this.gameWindow.addFrameListener(e -> this.replayFrame());
         this.setTikSpeed(200);
-        this.startingBlock = this.maze.getStartingBlock();
 
         // Pripojenie ovládacieho panelu
         this.controlPanel = new ControlPanel(this);
@@ -90,11 +120,11 @@ public class GameEngine {
      * a momentálne neběží žiadny algoritmus.
      */
     public void spawnPlayer() {
-        if (this.isMazeGenerated && !this.isRunningAlgorithm && this.player == null) {
+        if (this.isMazeGenerated && !this.isRunning() && this.player == null) {
 
             // Nastavenie začiatočnej pozície pre hráča
-            int row = this.startingBlock.getRowPosition();
-            int column = this.startingBlock.getColumnPosition();
+            int row = this.maze.getStartingRow();
+            int column = this.maze.getStartingColumn();
 
             this.player = new Player(row, column, this.maze);
         }
@@ -123,24 +153,48 @@ public class GameEngine {
 
 
     /**
-     * Resetuje bludisko na pôvodný stav, ak bolo bludisko bolo vygenerované.
+     * Resetuje bludisko na pôvodný stav. Práve bežiaci algoritmus a prehrávanie
+     * záznamu sa najprv ukončia.
      */
     public void resetMaze() {
-        if (this.isMazeGenerated) {
+        this.stopReplay();
+        this.startRun(() -> {
+            // Mriežka môže byť aj po prehrávaní neúplná, preto sa vyčistí vždy
             this.isMazeGenerated = false;
             this.showMazeEntryAndExit = false;
             this.player = null;
             this.maze.resetMaze();
-        }
+        }, true);
     }
 
     /**
-     * Generuje nové bludisko, ak ešte nebolo vygenerované.
+     * Spustí generovanie nového bludiska, ak ešte nebolo vygenerované a nič nebeží.
+     * Zrušené alebo zlyhané generovanie nechá bludisko prázdne.
      */
     public void generateMaze() {
-        if (!this.isMazeGenerated) {
-            this.isMazeGenerated = this.maze.mazePathGenerator();
+        this.stopReplay();
+        if (this.isMazeGenerated) {
+            return;
         }
+        this.startRun(() -> {
+            try {
+                this.isMazeGenerated = this.maze.mazePathGenerator();
+            } catch (RuntimeException e) {
+                // Nedokončené bludisko (zrušené alebo po chybe generátora) sa zahodí
+                Thread.interrupted();
+                this.maze.resetMaze();
+                throw e;
+            }
+        }, false);
+    }
+
+    /**
+     * Nastaví algoritmus, ktorým sa bude generovať nové bludisko.
+     * 
+     * @param generator Generátor bludiska.
+     */
+    public void setMazeGenerator(MazeGenerator generator) {
+        this.maze.setGenerator(generator);
     }
 
     /**
@@ -148,12 +202,7 @@ public class GameEngine {
      * a momentálne neběží žiadny algoritmus.
      */
     public void dijkstraAlgorithm() {
-        if (this.isMazeGenerated && !this.isRunningAlgorithm) {
-            this.isRunningAlgorithm = true;
-            this.despawnPlayer();
-            this.maze.dijkstraAlg();
-        }
-        this.isRunningAlgorithm = false;
+        this.startSolver(this.maze::dijkstraAlg);
     }
 
     /**
@@ -161,12 +210,7 @@ public class GameEngine {
      * a momentálne neběží žiadny algoritmus.
      */
     public void aStarAlgorithm() {
-        if (this.isMazeGenerated && !this.isRunningAlgorithm) {
-            this.isRunningAlgorithm = true;
-            this.despawnPlayer();
-            this.maze.aStarAlg();
-        }
-        this.isRunningAlgorithm = false;
+        this.startSolver(this.maze::aStarAlg);
     }
 
     /**
@@ -174,12 +218,122 @@ public class GameEngine {
      * a momentálne neběží žiadny algoritmus.
      */
     public void bfsAlgorithm() {
-        if (this.isMazeGenerated && !this.isRunningAlgorithm) {
-            this.isRunningAlgorithm = true;
+        this.startSolver(this.maze::bfsAlg);
+    }
+
+    /**
+     * Otvorí okno závodu, v ktorom naraz bežia Dijkstra, A* a BFS na nemennej kópii
+     * bludiska, každý vo vlastnom vlákne. Bludisko v hernom okne sa nemení.
+     * Volá sa vo vlákne Swingu.
+     */
+    public void raceAlgorithms() {
+        if (this.isMazeGenerated && !this.isRunning()) {
+            MazeGrid grid = this.maze.getGrid();
+            int start = grid.cellIndex(this.maze.getStartingRow(), this.maze.getStartingColumn());
+            int end = grid.cellIndex(this.maze.getEndingRow(), this.maze.getEndingColumn());
+            new RaceView(grid, start, end, RACE_LANE_SIZE);
+        }
+    }
+
+    /**
+     * Zruší práve bežiace generovanie alebo algoritmus. Algoritmus skončí
+     * pri najbližšom kroku vizualizácie.
+     */
+    public void stopAlgorithm() {
+        FutureTask<Void> run = this.currentRun.get();
+        if (run != null) {
+            run.cancel(true);
+        }
+    }
+
+    /**
+     * Vracia true, ak práve beží generovanie alebo algoritmus.
+     * 
+     * @return true, ak engine nie je nečinný
+     */
+    public boolean isRunning() {
+        return this.currentRun.get() != null;
+    }
+
+    /**
+     * Spustí riešiteľa, ak je bludisko vygenerované a nič nebeží.
+     */
+    private void startSolver(Runnable solver) {
+        this.stopReplay();
+        if (!this.isMazeGenerated) {
+            return;
+        }
+        this.startRun(() -> {
             this.despawnPlayer();
-            this.maze.bfsAlg();
+            solver.run();
+        }, false);
+    }
+
+    /**
+     * Spustí beh vo vlákne enginu. Engine je nečinný (currentRun je null) alebo má
+     * jeden beh. Bežný beh sa spustí len z nečinného stavu, takže rýchle klikanie
+     * nespustí viac behov. Beh s replaceCurrent zruší predchádzajúci beh a zaradí sa za neho.
+     * Engine je nečinný až po skutočnom skončení behu, nie hneď po jeho zrušení.
+     *
+     * @return true, ak sa beh spustil
+     */
+    private boolean startRun(Runnable task, boolean replaceCurrent) {
+        FutureTask<Void> run = new FutureTask<Void>(task, null) {
+            @Override
+            public void run() {
+                try {
+                    super.run();
+                    reportFailure(this);
+                } finally {
+                    GameEngine.this.currentRun.compareAndSet(this, null);
+                }
+            }
+        };
+        if (replaceCurrent) {
+            FutureTask<Void> previous = this.currentRun.getAndSet(run);
+            if (previous != null) {
+                previous.cancel(true);
+            }
+        } else if (!this.currentRun.compareAndSet(null, run)) {
+            return false;
+        }
+        this.executor.execute(run);
+        return true;
+    }
+
+    /**
+     * Zapíše do logu chybu, ktorou skončil dokončený beh. Zrušený beh nie je chyba.
+     */
+    private static void reportFailure(FutureTask<Void> run) {
+        if (run.isCancelled()) {
+            return;
+        }
+        try {
+            run.get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof CancellationException)) {
+                LOGGER.log(Level.SEVERE, "Beh algoritmu zlyhal", e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Vytvorí továreň na vlákna enginu. Na Jave 21 a novšej sú to virtuálne vlákna,
+     * inak obyčajné vlákno démona, aby neblokovalo ukončenie programu.
+     */
+    private static ThreadFactory createThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory)Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return task -> {
+                Thread thread = new Thread(task, "Labyrint-algoritmus");
+                thread.setDaemon(true);
+                return thread;
+            };
         }
-        this.isRunningAlgorithm = false;
     }
 
     /**
@@ -199,6 +353,171 @@ public class GameEngine {
         this.maze.setTikLength(tikLength);
     }
 
+    /**
+     * Nastaví pevný počet krokov algoritmu na jeden vykreslený snímok.
+     * 
+     * @param stepsPerFrame Počet krokov na snímok, 0 = bez obmedzenia
+     */
+    public void setStepsPerFrame(int stepsPerFrame) {
+        this.maze.getPacer().setStepsPerFrame(stepsPerFrame);
+    }
+
+    /**
+     * Zapne alebo vypne automatický počet krokov na snímok podľa veľkosti bludiska.
+     * 
+     * @param automatic true pre automatický režim
+     */
+    public void setAutoStepsPerFrame(boolean automatic) {
+        this.maze.getPacer().setAutomatic(automatic);
+    }
+
+    /**
+     * Získa aktuálny počet krokov algoritmu na jeden snímok.
+     * 
+     * @return Počet krokov na snímok, 0 = bez obmedzenia
+     */
+    public int getStepsPerFrame() {
+        return this.maze.getPacer().getStepsPerFrame();
+    }
+
+    /**
+     * Zapne alebo vypne nahrávanie priebehu algoritmov. Záznam začína aktuálnymi
+     * priechodmi bludiska, po vypnutí sa dá prehrať.
+     * 
+     * @param recording true pre zapnutie nahrávania
+     */
+    public synchronized void setRecording(boolean recording) {
+        if (recording && this.recorder == null) {
+            this.stopReplay();
+            this.recorder = new StepRecorder(this.maze.getGrid());
+            this.maze.addListener(this.recorder);
+        } else if (!recording && this.recorder != null) {
+            this.maze.removeListener(this.recorder);
+            this.lastLog = this.recorder.getLog();
+            this.recorder = null;
+        }
+    }
+
+    /**
+     * Vracia true, ak sa nahráva priebeh algoritmov.
+     * 
+     * @return true pri nahrávaní
+     */
+    public synchronized boolean isRecording() {
+        return this.recorder != null;
+    }
+
+    /**
+     * Spustí prehrávanie posledného záznamu dopredu alebo dozadu rýchlosťou
+     * krokov na snímok. Nahrávanie sa pri tom ukončí. Na konci záznamu sa prehrávanie
+     * dopredu začne od začiatku a na začiatku sa prehrávanie dozadu začne od konca.
+     * 
+     * @param forward true pre prehrávanie dopredu
+     * @return true, ak sa prehrávanie spustilo
+     */
+    public synchronized boolean playReplay(boolean forward) {
+        if (!this.prepareReplay()) {
+            return false;
+        }
+        int length = this.replayer.getEventCount();
+        if (forward && this.replayer.getPosition() == length) {
+            this.replayer.seek(0);
+        } else if (!forward && this.replayer.getPosition() == 0) {
+            this.replayer.seek(length);
+        }
+        this.replayDirection = forward ? 1 : -1;
+        return true;
+    }
+
+    /**
+     * Pozastaví prehrávanie záznamu na aktuálnej udalosti.
+     */
+    public synchronized void pauseReplay() {
+        this.replayDirection = 0;
+    }
+
+    /**
+     * Presunie prehrávanie na danú udalosť záznamu a pozastaví ho.
+     * 
+     * @param position Počet prehraných udalostí
+     */
+    public synchronized void seekReplay(int position) {
+        if (this.prepareReplay()) {
+            this.replayDirection = 0;
+            this.replayer.seek(position);
+        }
+    }
+
+    /**
+     * Získa pozíciu prehrávania. Ak sa záznam neprehráva, vracia jeho koniec.
+     * 
+     * @return Počet prehraných udalostí
+     */
+    public synchronized int getReplayPosition() {
+        return this.replayer != null ? this.replayer.getPosition() : this.getReplayLength();
+    }
+
+    /**
+     * Získa počet udalostí v aktuálnom zázname.
+     * 
+     * @return Počet udalostí, 0 ak záznam neexistuje
+     */
+    public synchronized int getReplayLength() {
+        if (this.recorder != null) {
+            return this.recorder.getLog().getEventCount();
+        }
+        return this.lastLog == null ? 0 : this.lastLog.getEventCount();
+    }
+
+    /**
+     * Pripraví prehrávač posledného záznamu. Prehrávač začne na konci záznamu,
+     * teda v stave, ktorý bol zobrazený po nahrávaní. Kým sa záznam prehráva, mriežka
+     * patrí prehrávaču a bludisko sa nepovažuje za vygenerované (hráč ani závod).
+     */
+    private boolean prepareReplay() {
+        if (this.isRunning()) {
+            return false;
+        }
+        this.setRecording(false);
+        if (this.lastLog == null) {
+            return false;
+        }
+        if (this.replayer == null || this.replayer.getLog() != this.lastLog) {
+            this.despawnPlayer();
+            this.isMazeGenerated = false;
+            this.replayer = this.maze.createReplayer(this.lastLog);
+            this.replayer.seek(this.lastLog.getEventCount());
+        }
+        return true;
+    }
+
+    /**
+     * Ukončí prehrávanie záznamu. Mriežka sa vráti do stavu na konci záznamu
+     * a bludisko je vygenerované, len ak je v ňom úplné dokonalé bludisko
+     * (záznam mohol skončiť aj uprostred generovania).
+     */
+    private synchronized void stopReplay() {
+        if (this.replayer != null) {
+            this.replayer.seek(this.replayer.getEventCount());
+            this.replayer = null;
+            this.isMazeGenerated = this.maze.isPerfect();
+        }
+        this.replayDirection = 0;
+    }
+
+    /**
+     * Prehrá udalosti jedného snímku. Volá sa vo vlákne Swingu pri každom snímku herného okna.
+     */
+    private synchronized void replayFrame() {
+        if (this.replayer == null || this.replayDirection == 0) {
+            return;
+        }
+        int count = Math.max(1, this.getStepsPerFrame());
+        if (this.replayer.advance(this.replayDirection * count) < count) {
+            this.replayDirection = 0;
+        }
+    }
+
     /**
      * Získa aktuálnu rýchlosť tikov pre bludisko.
      * 
@@ -0,0 +1,296 @@
+import java.util.Arrays;
+
+/**
+ * Trieda GridPyramid je pyramída úrovní detailu nad stavmi blokov a stenami mriežky
+ * pre zobrazenie bludiska, v ktorom je blok menší ako pixel.
+ * Na úrovni L predstavuje jedna dlaždica štvorec 2^L x 2^L blokov a pamätá si
+ * dva bajty: prevládajúci stav a hustotu stien.
+ *
+ * Prevládajúci stav je najdôležitejší stav, ktorý sa v dlaždici vyskytuje
+ * (hráč, cesta, aktuálny blok, okraj hľadania, navštívené, prázdne), aby sa napr.
+ * okraj hľadania nestratil medzi navštívenými blokmi. Hustota stien 0 až 255 je podiel
+ * stien (pravá a dolná stena každého bloku) v dlaždici.
+ *
+ * Po zmene bloku sa prepočíta len jeho dlaždica na každej úrovni zo štyroch dlaždíc
+ * o úroveň nižšie, a len kým sa hodnoty menia, takže zmena stojí najviac O(počet úrovní).
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.2
+ */
+public class GridPyramid {
+    // Dôležitosť stavu podľa poradia v Farby, vyšší stav prekryje nižší
+    private static final int[] PRIORITY = new int[Farby.values().length];
+
+    // Dôležitejší z dvoch stavov, index je prvý * počet farieb + druhý
+    private static final byte[] HIGHER = new byte[PRIORITY.length * PRIORITY.length];
+
+    static {
+        PRIORITY[Farby.CIERNA.ordinal()] = 0;
+        PRIORITY[Farby.MODRA.ordinal()] = 1;
+        PRIORITY[Farby.ZELENA.ordinal()] = 2;
+        PRIORITY[Farby.CERVENA.ordinal()] = 3;
+        PRIORITY[Farby.ZLTA.ordinal()] = 4;
+        PRIORITY[Farby.BIELA.ordinal()] = 5;
+        for (int first = 0; first < PRIORITY.length; first++) {
+            for (int second = 0; second < PRIORITY.length; second++) {
+                HIGHER[first * PRIORITY.length + second] = (byte)(PRIORITY[first] >= PRIORITY[second] ? first : second);
+            }
+        }
+    }
+
+    private final MazeGrid grid;
+    // Stav každého bloku ako poradie farby v Farby, zdieľaný s vlastníkom pyramídy
+    private final byte[] cellStates;
+    private final int levels;
+    // Rozmery a hodnoty dlaždíc úrovní 1..levels, index 0 sa nepoužíva
+    private final int[] tileRows;
+    private final int[] tileColumns;
+    private final byte[][] states;
+    private final byte[][] densities;
+
+    /**
+     * Konštruktor vytvorí pyramídu s daným počtom úrovní a naplní ju.
+     *
+     * @param grid Mriežka bludiska.
+     * @param cellStates Stavy blokov, pyramída ich len číta.
+     * @param levels Počet úrovní nad blokmi (aspoň 1).
+     */
+    public GridPyramid(MazeGrid grid, byte[] cellStates, int levels) {
+        this.grid = grid;
+        this.cellStates = cellStates;
+        this.levels = levels;
+        this.tileRows = new int[levels + 1];
+        this.tileColumns = new int[levels + 1];
+        this.states = new byte[levels + 1][];
+        this.densities = new byte[levels + 1][];
+        this.tileRows[0] = grid.getRows();
+        this.tileColumns[0] = grid.getColumns();
+        for (int level = 1; level <= levels; level++) {
+            this.tileRows[level] = (this.tileRows[level - 1] + 1) / 2;
+            this.tileColumns[level] = (this.tileColumns[level - 1] + 1) / 2;
+            int tiles = this.tileRows[level] * this.tileColumns[level];
+            this.states[level] = new byte[tiles];
+            this.densities[level] = new byte[tiles];
+        }
+        this.rebuild();
+    }
+
+    /**
+     * Prepočíta celú pyramídu od blokov nahor (napr. po vymazaní mriežky).
+     */
+    public void rebuild() {
+        this.rebuildStates();
+        for (int level = 1; level <= this.levels; level++) {
+            int lowerRows = this.tileRows[level - 1];
+            int lowerColumns = this.tileColumns[level - 1];
+            byte[] densities = this.densities[level];
+            int tile = 0;
+            for (int row = 0; row < this.tileRows[level]; row++) {
+                int top = row * 2 * lowerColumns;
+                int bottom = row * 2 + 1 < lowerRows ? top + lowerColumns : -1;
+                for (int column = 0; column < this.tileColumns[level]; column++, tile++) {
+                    int left = column * 2;
+                    if (bottom < 0 || left + 1 >= lowerColumns) {
+                        // Dlaždica na okraji mriežky nemá všetky štyri časti
+                        this.updateDensity(level, row, column);
+                        continue;
+                    }
+                    int sum = this.lowerDensity(level, top + left) + this.lowerDensity(level, top + left + 1)
+                        + this.lowerDensity(level, bottom + left) + this.lowerDensity(level, bottom + left + 1);
+                    densities[tile] = (byte)(sum / 4);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepočíta len prevládajúce stavy dlaždíc (po hromadnej zmene stavov blokov).
+     */
+    public void rebuildStates() {
+        for (int level = 1; level <= this.levels; level++) {
+            int lowerRows = this.tileRows[level - 1];
+            int lowerColumns = this.tileColumns[level - 1];
+            byte[] lowerStates = level == 1 ? this.cellStates : this.states[level - 1];
+            byte[] states = this.states[level];
+            int tile = 0;
+            for (int row = 0; row < this.tileRows[level]; row++) {
+                // Chýbajúci riadok alebo stĺpec na okraji nahradí ten istý blok, maximum sa nezmení
+                int top = row * 2 * lowerColumns;
+                int bottom = row * 2 + 1 < lowerRows ? top + lowerColumns : top;
+                for (int column = 0; column < this.tileColumns[level]; column++, tile++) {
+                    int left = column * 2;
+                    int right = left + 1 < lowerColumns ? left + 1 : left;
+                    int upper = higher(lowerStates[top + left], lowerStates[top + right]);
+                    int lower = higher(lowerStates[bottom + left], lowerStates[bottom + right]);
+                    states[tile] = (byte)higher(upper, lower);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nastaví všetkým dlaždiciam rovnaký stav (po nastavení rovnakého stavu všetkým blokom).
+     *
+     * @param state Stav ako poradie farby v Farby.
+     */
+    public void fillStates(byte state) {
+        for (int level = 1; level <= this.levels; level++) {
+            Arrays.fill(this.states[level], state);
+        }
+    }
+
+    /**
+     * Prepočíta prevládajúci stav dlaždíc nad blokom po zmene jeho stavu.
+     * Prepočet skončí na prvej úrovni, na ktorej sa dlaždica nezmenila.
+     *
+     * @param cell Index bloku.
+     */
+    public void stateChanged(int cell) {
+        int row = this.grid.rowOf(cell);
+        int column = cell - row * this.grid.getColumns();
+        for (int level = 1; level <= this.levels; level++) {
+            row >>= 1;
+            column >>= 1;
+            if (!this.updateState(level, row, column)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Prepočíta hustotu stien dlaždíc nad blokom po zmene jeho pravej alebo dolnej steny.
+     * Prepočet skončí na prvej úrovni, na ktorej sa dlaždica nezmenila.
+     *
+     * @param cell Index bloku.
+     */
+    public void wallsChanged(int cell) {
+        int row = this.grid.rowOf(cell);
+        int column = cell - row * this.grid.getColumns();
+        for (int level = 1; level <= this.levels; level++) {
+            row >>= 1;
+            column >>= 1;
+            if (!this.updateDensity(level, row, column)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Vracia počet úrovní nad blokmi.
+     *
+     * @return Počet úrovní.
+     */
+    public int getLevels() {
+        return this.levels;
+    }
+
+    /**
+     * Vracia počet riadkov dlaždíc úrovne.
+     *
+     * @param level Úroveň 1..getLevels().
+     * @return Počet riadkov.
+     */
+    public int getRows(int level) {
+        return this.tileRows[level];
+    }
+
+    /**
+     * Vracia počet stĺpcov dlaždíc úrovne.
+     *
+     * @param level Úroveň 1..getLevels().
+     * @return Počet stĺpcov.
+     */
+    public int getColumns(int level) {
+        return this.tileColumns[level];
+    }
+
+    /**
+     * Vracia prevládajúci stav dlaždice ako poradie farby v Farby.
+     *
+     * @param level Úroveň 1..getLevels().
+     * @param tile Index dlaždice (riadok * getColumns(level) + stĺpec).
+     * @return Poradie farby.
+     */
+    public int getState(int level, int tile) {
+        return this.states[level][tile];
+    }
+
+    /**
+     * Vracia hustotu stien dlaždice.
+     *
+     * @param level Úroveň 1..getLevels().
+     * @param tile Index dlaždice (riadok * getColumns(level) + stĺpec).
+     * @return Hustota 0 (žiadna stena) až 255 (všetky steny).
+     */
+    public int getDensity(int level, int tile) {
+        return this.densities[level][tile] & 0xFF;
+    }
+
+    /**
+     * Prepočíta prevládajúci stav dlaždice zo (najviac) štyroch dlaždíc alebo blokov o úroveň nižšie.
+     *
+     * @return true, ak sa stav dlaždice zmenil.
+     */
+    private boolean updateState(int level, int row, int column) {
+        int lowerRows = this.tileRows[level - 1];
+        int lowerColumns = this.tileColumns[level - 1];
+        byte[] lowerStates = level == 1 ? this.cellStates : this.states[level - 1];
+        int state = Farby.CIERNA.ordinal();
+        for (int r = row * 2; r <= row * 2 + 1 && r < lowerRows; r++) {
+            for (int c = column * 2; c <= column * 2 + 1 && c < lowerColumns; c++) {
+                state = higher(state, lowerStates[r * lowerColumns + c]);
+            }
+        }
+
+        int tile = row * this.tileColumns[level] + column;
+        if (this.states[level][tile] == state) {
+            return false;
+        }
+        this.states[level][tile] = (byte)state;
+        return true;
+    }
+
+    /**
+     * Prepočíta hustotu stien dlaždice zo (najviac) štyroch dlaždíc alebo blokov o úroveň nižšie.
+     *
+     * @return true, ak sa hustota dlaždice zmenila.
+     */
+    private boolean updateDensity(int level, int row, int column) {
+        int lowerRows = this.tileRows[level - 1];
+        int lowerColumns = this.tileColumns[level - 1];
+        int sum = 0;
+        int count = 0;
+        for (int r = row * 2; r <= row * 2 + 1 && r < lowerRows; r++) {
+            for (int c = column * 2; c <= column * 2 + 1 && c < lowerColumns; c++) {
+                sum += this.lowerDensity(level, r * lowerColumns + c);
+                count++;
+            }
+        }
+
+        int tile = row * this.tileColumns[level] + column;
+        byte density = (byte)(sum / count);
+        if (this.densities[level][tile] == density) {
+            return false;
+        }
+        this.densities[level][tile] = density;
+        return true;
+    }
+
+    /**
+     * Vracia hustotu stien bloku alebo dlaždice o úroveň nižšie ako level.
+     */
+    private int lowerDensity(int level, int lower) {
+        if (level == 1) {
+            // Pravá a dolná stena bloku, každá je polovica hustoty
+            return (this.grid.hasRightBorder(lower) ? 128 : 0) + (this.grid.hasDownBorder(lower) ? 127 : 0);
+        }
+        return this.densities[level - 1][lower] & 0xFF;
+    }
+
+    /**
+     * Vracia dôležitejší z dvoch stavov.
+     */
+    private static int higher(int first, int second) {
+        return HIGHER[first * PRIORITY.length + second];
+    }
+}
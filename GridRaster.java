@@ -0,0 +1,736 @@
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+
+/**
+ * Trieda GridRaster kreslí bludisko priamo do pixelov obrázka BufferedImage.
+ * Stav bloku je jeden bajt (poradie farby v Farby), farby sa berú z palety,
+ * steny sa kreslia v súvislých úsekoch a po zmene sa dá prekresliť len jeden blok.
+ * Zmenená oblasť obrázka sa zbiera, kým si ju nevyzdvihne ten, kto obrázok zobrazuje.
+ * Na jednotlivé bloky sa nevytvárajú žiadne objekty a trieda nepotrebuje okno.
+ *
+ * Geometria zodpovedá vykresľovaniu cez Stvorec: blok je štvorec so stranou cellSize
+ * a stena je pás hrúbky lineWidth so stredom na hrane bloku.
+ *
+ * Obrázok je pohľad (kamera) na bludisko: veľkosť bloku a poloha bludiska sa dajú meniť
+ * (priblíženie a posun), takže bludisko môže byť väčšie ako obrázok. Kreslia sa len bloky
+ * a steny, ktoré do obrázka zasahujú, preto cena prekreslenia závisí od veľkosti obrázka,
+ * nie od veľkosti bludiska. Predvolený pohľad zobrazí celé bludisko.
+ *
+ * Vymazanie stavov (začiatok hľadania) obnoví obrázok z uloženej vrstvy stien, ktorá sa
+ * kreslí len po zmene pohľadu alebo stien, a kým vrstva platí, blok sa prekreslí zložením
+ * vrstvy stien a farby stavu bez kreslenia stien.
+ *
+ * Keď je blok menší ako pixel (úroveň detailu L > 0), pixel zobrazuje dlaždicu
+ * 2^L x 2^L blokov z pyramídy GridPyramid: farbu jej prevládajúceho stavu zmiešanú
+ * s farbou stien podľa hustoty stien. Pyramída sa vytvorí pri prvom oddialení
+ * a potom sa priebežne upravuje po každej zmene bloku.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.7
+ */
+public class GridRaster {
+    // Farby stavov blokov podľa poradia v Farby
+    private static final int[] PALETTE = new int[Farby.values().length];
+    private static final int WALL_COLOR = Color.white.getRGB();
+    private static final int BACKGROUND_COLOR = Color.black.getRGB();
+    // Počet odtieňov hustoty stien dlaždice
+    private static final int LOD_SHADES = 8;
+    // Farby dlaždíc, index je stav * LOD_SHADES + odtieň hustoty stien
+    private static final int[] LOD_COLORS = new int[PALETTE.length * LOD_SHADES];
+
+    static {
+        PALETTE[Farby.ZELENA.ordinal()] = Color.green.getRGB();
+        PALETTE[Farby.ZLTA.ordinal()] = Color.yellow.getRGB();
+        PALETTE[Farby.MODRA.ordinal()] = Color.blue.getRGB();
+        PALETTE[Farby.CERVENA.ordinal()] = Color.red.getRGB();
+        PALETTE[Farby.CIERNA.ordinal()] = Color.black.getRGB();
+        PALETTE[Farby.BIELA.ordinal()] = Color.white.getRGB();
+
+        // Farba stavu zmiešaná s farbou stien, odtieň 0 je bez stien, posledný len steny
+        Color wall = new Color(WALL_COLOR);
+        for (int state = 0; state < PALETTE.length; state++) {
+            Color color = new Color(PALETTE[state]);
+            for (int shade = 0; shade < LOD_SHADES; shade++) {
+                double weight = shade / (double)(LOD_SHADES - 1);
+                int red = (int)Math.round(color.getRed() + (wall.getRed() - color.getRed()) * weight);
+                int green = (int)Math.round(color.getGreen() + (wall.getGreen() - color.getGreen()) * weight);
+                int blue = (int)Math.round(color.getBlue() + (wall.getBlue() - color.getBlue()) * weight);
+                LOD_COLORS[state * LOD_SHADES + shade] = new Color(red, green, blue).getRGB();
+            }
+        }
+    }
+
+    private final MazeGrid grid;
+    private final int width;
+    private final int height;
+    private final BufferedImage image;
+    // Pixely obrázka, riadok po riadku
+    private final int[] pixels;
+    // Stav každého bloku ako poradie farby v Farby
+    private final byte[] states;
+    // Vrstva stien: pixely bludiska so všetkými blokmi čiernymi pre aktuálny pohľad
+    private final int[] wallLayer;
+    // true, ak vrstva stien zodpovedá aktuálnemu pohľadu a stenám
+    private boolean wallLayerValid;
+
+    // Veľkosť bloku, hrúbka steny a úroveň detailu predvoleného pohľadu na celé bludisko
+    private final int fitCellSize;
+    private final int fitLineWidth;
+    private final int fitLevel;
+
+    // Úroveň detailu, pri L > 0 je pixel dlaždica 2^L x 2^L blokov a cellSize je 1
+    private int level;
+    // Pyramída úrovní detailu, null kým sa bludisko neoddiali
+    private GridPyramid pyramid;
+    // false, ak stavy alebo hustoty stien pyramídy nezodpovedajú blokom a pred použitím
+    // sa musia prepočítať, dovtedy sa pyramída priebežne neupravuje
+    private boolean statesValid;
+    private boolean wallsValid;
+
+    private int cellSize;
+    private int lineWidth;
+    // Ľavý horný roh bludiska na obrázku, môže byť aj mimo obrázka
+    private int startingX;
+    private int startingY;
+    // Posun pásu steny pred hranu bloku
+    private int lineOffset;
+
+    // Zmenená oblasť obrázka od posledného vyzdvihnutia, prázdna ak dirtyMinX > dirtyMaxX
+    private int dirtyMinX;
+    private int dirtyMinY;
+    private int dirtyMaxX;
+    private int dirtyMaxY;
+
+    /**
+     * Konštruktor vypočíta rozmery blokov tak ako MazeRenderer a vytvorí prázdny obrázok.
+     * Všetky bloky majú na začiatku čiernu farbu a pohľad je predvolený.
+     *
+     * @param grid Mriežka bludiska.
+     * @param width Šírka obrázka v pixeloch.
+     * @param height Výška obrázka v pixeloch.
+     */
+    public GridRaster(MazeGrid grid, int width, int height) {
+        this.grid = grid;
+        this.width = width;
+        this.height = height;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt)this.image.getRaster().getDataBuffer()).getData();
+        this.states = new byte[grid.getCellCount()];
+        Arrays.fill(this.states, (byte)Farby.CIERNA.ordinal());
+        this.wallLayer = new int[this.pixels.length];
+
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        if ((width / rows) <= (height / columns)) {
+            this.fitCellSize = Math.max(1, (int)((width / rows) * 0.8));
+        } else {
+            this.fitCellSize = Math.max(1, (int)((height / columns) * 0.8));
+        }
+        if (rows >= 200) {
+            this.fitLineWidth = 1;
+        } else if (rows >= 100) {
+            this.fitLineWidth = 2;
+        } else {
+            this.fitLineWidth = 3;
+        }
+        // Najmenšia úroveň detailu, pri ktorej sa celé bludisko zmestí do obrázka
+        int lodLevel = 0;
+        while (this.extent(columns, lodLevel) > width || this.extent(rows, lodLevel) > height) {
+            lodLevel++;
+        }
+        this.fitLevel = lodLevel;
+        this.fitView();
+        this.clearDirty();
+    }
+
+    /**
+     * Nastaví predvolený pohľad: celé bludisko je v strede obrázka, pri veľkom bludisku
+     * na najmenšej úrovni detailu, pri ktorej sa zmestí. Obrázok sa nezmení, kým sa neprekreslí.
+     */
+    public void fitView() {
+        if (this.fitLevel > 0) {
+            int x = (this.width / 2) - (this.extent(this.grid.getColumns(), this.fitLevel) / 2);
+            int y = (this.height / 2) - (this.extent(this.grid.getRows(), this.fitLevel) / 2);
+            this.applyView(this.fitLevel, 1, x, y);
+            return;
+        }
+        int x = (this.width / 2) - ((this.grid.getColumns() * this.fitCellSize) / 2);
+        int y = (this.height / 2) - ((this.grid.getRows() * this.fitCellSize) / 2);
+        this.setView(this.fitCellSize, x, y);
+    }
+
+    /**
+     * Nastaví pohľad na bludisko. Veľkosť bloku sa obmedzí na 1 až polovicu obrázka
+     * a poloha tak, aby aspoň časť bludiska zasahovala do stredu obrázka.
+     * Hrúbka stien sa mení s veľkosťou bloku. Obrázok sa nezmení, kým sa neprekreslí.
+     *
+     * @param newCellSize Veľkosť bloku v pixeloch.
+     * @param x Poloha ľavého okraja bludiska na obrázku.
+     * @param y Poloha horného okraja bludiska na obrázku.
+     */
+    public void setView(int newCellSize, int x, int y) {
+        this.applyView(0, newCellSize, x, y);
+    }
+
+    /**
+     * Zmení veľkosť bloku tak, že bod obrázka [x, y] ostane nad tým istým miestom bludiska.
+     * Obrázok sa nezmení, kým sa neprekreslí.
+     *
+     * @param x Vodorovná poloha pevného bodu na obrázku.
+     * @param y Zvislá poloha pevného bodu na obrázku.
+     * @param newCellSize Nová veľkosť bloku v pixeloch.
+     */
+    public void zoomAt(int x, int y, int newCellSize) {
+        this.zoomTo(x, y, 0, this.clampCellSize(newCellSize));
+    }
+
+    /**
+     * Priblíži alebo oddiali bludisko o jeden krok okolo bodu obrázka [x, y].
+     * Krok mení veľkosť bloku o štvrtinu (aspoň o 1 pixel), pod 1 pixel na blok
+     * sa prechádza na ďalšiu úroveň detailu. Obrázok sa nezmení, kým sa neprekreslí.
+     *
+     * @param x Vodorovná poloha pevného bodu na obrázku.
+     * @param y Zvislá poloha pevného bodu na obrázku.
+     * @param closer true na priblíženie, false na oddialenie.
+     */
+    public void zoomStep(int x, int y, boolean closer) {
+        if (closer) {
+            if (this.level > 0) {
+                this.zoomTo(x, y, this.level - 1, 1);
+            } else {
+                this.zoomAt(x, y, Math.max(this.cellSize + 1, this.cellSize * 5 / 4));
+            }
+        } else if (this.level == 0 && this.cellSize > 1) {
+            this.zoomAt(x, y, Math.min(this.cellSize - 1, this.cellSize * 4 / 5));
+        } else if (this.level < this.fitLevel) {
+            this.zoomTo(x, y, this.level + 1, 1);
+        }
+    }
+
+    /**
+     * Posunie bludisko na obrázku. Obrázok sa nezmení, kým sa neprekreslí.
+     *
+     * @param dx Vodorovný posun v pixeloch.
+     * @param dy Zvislý posun v pixeloch.
+     */
+    public void pan(int dx, int dy) {
+        this.applyView(this.level, this.cellSize, this.startingX + dx, this.startingY + dy);
+    }
+
+    /**
+     * Vracia aktuálnu veľkosť bloku v pixeloch.
+     *
+     * @return Veľkosť bloku.
+     */
+    public int getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * Vracia aktuálnu úroveň detailu.
+     *
+     * @return 0 ak má blok aspoň 1 pixel, inak L, pri ktorej je pixel dlaždica 2^L x 2^L blokov.
+     */
+    public int getLevel() {
+        return this.level;
+    }
+
+    /**
+     * Nastaví stav bloku. Obrázok sa nezmení, kým sa blok neprekreslí.
+     *
+     * @param cell Index bloku.
+     * @param farba Nová farba bloku.
+     * @return true, ak sa stav bloku zmenil.
+     */
+    public boolean setState(int cell, Farby farba) {
+        byte state = (byte)farba.ordinal();
+        if (this.states[cell] == state) {
+            return false;
+        }
+        this.states[cell] = state;
+        if (this.statesValid) {
+            this.pyramid.stateChanged(cell);
+        }
+        return true;
+    }
+
+    /**
+     * Vracia aktuálny stav bloku.
+     *
+     * @param cell Index bloku.
+     * @return Farba bloku.
+     */
+    public Farby getState(int cell) {
+        return Farby.values()[this.states[cell]];
+    }
+
+    /**
+     * Nastaví všetkým blokom rovnaký stav. Obrázok sa nezmení, kým sa neprekreslí.
+     *
+     * @param farba Nová farba všetkých blokov.
+     */
+    public void setAllStates(Farby farba) {
+        Arrays.fill(this.states, (byte)farba.ordinal());
+        this.statesValid = false;
+    }
+
+    /**
+     * Nastaví stavy všetkých blokov naraz, stavy pyramídy sa prepočítajú pri najbližšom
+     * prekreslení. Obrázok sa nezmení, kým sa neprekreslí.
+     *
+     * @param newStates Stav každého bloku ako poradie farby v Farby.
+     */
+    public void setStates(byte[] newStates) {
+        System.arraycopy(newStates, 0, this.states, 0, this.states.length);
+        this.statesValid = false;
+    }
+
+    /**
+     * Zahodí uloženú vrstvu stien, najbližšie vymazanie stavov ju nakreslí znova
+     * (napr. po zaplnení fronty udalostí, keď nie je isté, že vrstva zodpovedá mriežke).
+     */
+    public void invalidateWallLayer() {
+        this.wallLayerValid = false;
+    }
+
+    /**
+     * Oznámi, že sa steny mriežky zmenili bez volania rasterPassage (napr. zahodené udalosti).
+     * Obrázok sa nezmení, kým sa neprekreslí.
+     */
+    public void wallsChanged() {
+        this.wallsValid = false;
+        this.wallLayerValid = false;
+    }
+
+    /**
+     * Vymaže stavy všetkých blokov (čierna farba) a obnoví obrázok z vrstvy stien.
+     * Vrstva stien je obrázok bludiska bez stavov, vytvorí sa pri prvom vymazaní
+     * a platí, kým sa nezmení pohľad alebo steny, takže ďalšie vymazanie je len
+     * vyplnenie poľa stavov a skopírovanie pixelov.
+     */
+    public void clearStates() {
+        byte state = (byte)Farby.CIERNA.ordinal();
+        Arrays.fill(this.states, state);
+        if (this.statesValid) {
+            this.pyramid.fillStates(state);
+        }
+        if (this.wallLayerValid) {
+            System.arraycopy(this.wallLayer, 0, this.pixels, 0, this.pixels.length);
+            this.markDirty(0, 0, this.width, this.height);
+            return;
+        }
+        this.rasterAll();
+        System.arraycopy(this.pixels, 0, this.wallLayer, 0, this.pixels.length);
+        this.wallLayerValid = true;
+    }
+
+    /**
+     * Prekreslí celý obrázok: pozadie, viditeľné bloky po riadkoch pixelov
+     * a viditeľné steny v súvislých vodorovných a zvislých úsekoch.
+     * Bloky mimo obrázka sa vôbec neprechádzajú.
+     */
+    public void rasterAll() {
+        Arrays.fill(this.pixels, BACKGROUND_COLOR);
+        this.markDirty(0, 0, this.width, this.height);
+        if (this.level > 0) {
+            this.rasterTiles();
+            return;
+        }
+
+        // Viditeľný rozsah riadkov [firstRow, lastRow) a stĺpcov [firstColumn, lastColumn)
+        int firstRow = Math.max(0, Math.floorDiv(-this.startingY, this.cellSize));
+        int lastRow = Math.min(this.grid.getRows(), Math.floorDiv(this.height - 1 - this.startingY, this.cellSize) + 1);
+        int firstColumn = Math.max(0, Math.floorDiv(-this.startingX, this.cellSize));
+        int lastColumn = Math.min(this.grid.getColumns(), Math.floorDiv(this.width - 1 - this.startingX, this.cellSize) + 1);
+        if (firstRow >= lastRow || firstColumn >= lastColumn) {
+            return;
+        }
+        int columns = this.grid.getColumns();
+
+        // Bloky: prvý riadok pixelov radu blokov sa vyplní po úsekoch blokov
+        // a ostatné riadky toho radu sa z neho skopírujú
+        for (int row = firstRow; row < lastRow; row++) {
+            int y0 = Math.max(0, this.startingY + row * this.cellSize);
+            int y1 = Math.min(this.height, this.startingY + (row + 1) * this.cellSize);
+            int cell = row * columns + firstColumn;
+            for (int column = firstColumn; column < lastColumn; column++, cell++) {
+                int x = this.startingX + column * this.cellSize;
+                this.fillSpan(y0, x, x + this.cellSize, PALETTE[this.states[cell]]);
+            }
+            for (int y = y0 + 1; y < y1; y++) {
+                System.arraycopy(this.pixels, y0 * this.width, this.pixels, y * this.width, this.width);
+            }
+        }
+
+        // Steny a rohy susedov tesne mimo obrázka doň môžu zasahovať, preto sa rozsah rozšíri
+        firstRow = Math.max(0, firstRow - 1);
+        lastRow = Math.min(this.grid.getRows(), lastRow + 1);
+        firstColumn = Math.max(0, firstColumn - 1);
+        lastColumn = Math.min(columns, lastColumn + 1);
+
+        // Vodorovné steny na viditeľných hranách, súvislé úseky sa kreslia naraz
+        for (int edge = firstRow; edge <= lastRow; edge++) {
+            int column = firstColumn;
+            while (column < lastColumn) {
+                if (!this.hasHorizontalWall(edge, column)) {
+                    column++;
+                    continue;
+                }
+                int first = column;
+                while (column < lastColumn && this.hasHorizontalWall(edge, column)) {
+                    column++;
+                }
+                int x = this.startingX + first * this.cellSize - this.lineOffset;
+                int y = this.startingY + edge * this.cellSize - this.lineOffset;
+                this.fillRect(x, y, (column - first) * this.cellSize + this.lineWidth, this.lineWidth, WALL_COLOR);
+            }
+        }
+
+        // Zvislé steny na viditeľných hranách
+        for (int edge = firstColumn; edge <= lastColumn; edge++) {
+            int row = firstRow;
+            while (row < lastRow) {
+                if (!this.hasVerticalWall(row, edge)) {
+                    row++;
+                    continue;
+                }
+                int first = row;
+                while (row < lastRow && this.hasVerticalWall(row, edge)) {
+                    row++;
+                }
+                int x = this.startingX + edge * this.cellSize - this.lineOffset;
+                int y = this.startingY + first * this.cellSize - this.lineOffset;
+                this.fillRect(x, y, this.lineWidth, (row - first) * this.cellSize + this.lineWidth, WALL_COLOR);
+            }
+        }
+    }
+
+    /**
+     * Prekreslí jeden blok: jeho plochu podľa stavu, jeho štyri steny a rohy,
+     * do ktorých zasahuje. Susedné bloky sa nezmenia. Blok mimo obrázka sa nekreslí.
+     *
+     * @param cell Index bloku.
+     */
+    public void rasterCell(int cell) {
+        int row = this.grid.rowOf(cell);
+        int column = cell - row * this.grid.getColumns();
+        int x = this.startingX + column * this.cellSize;
+        int y = this.startingY + row * this.cellSize;
+        int size = this.cellSize;
+        int line = this.lineWidth;
+        int offset = this.lineOffset;
+        if (this.level > 0) {
+            this.rasterTile(row, column);
+            return;
+        }
+        if (x + size + line <= 0 || y + size + line <= 0 || x - line >= this.width || y - line >= this.height) {
+            return;
+        }
+        if (this.wallLayerValid) {
+            this.composeCell(x, y, PALETTE[this.states[cell]]);
+            return;
+        }
+
+        this.fillRect(x, y, size, size, PALETTE[this.states[cell]]);
+        this.markDirty(x - offset, y - offset, size + line, size + line);
+
+        // Steny bloku medzi rohmi
+        if (this.hasHorizontalWall(row, column)) {
+            this.fillRect(x - offset + line, y - offset, size - line, line, WALL_COLOR);
+        }
+        if (this.hasHorizontalWall(row + 1, column)) {
+            this.fillRect(x - offset + line, y + size - offset, size - line, line, WALL_COLOR);
+        }
+        if (this.hasVerticalWall(row, column)) {
+            this.fillRect(x - offset, y - offset + line, line, size - line, WALL_COLOR);
+        }
+        if (this.hasVerticalWall(row, column + 1)) {
+            this.fillRect(x + size - offset, y - offset + line, line, size - line, WALL_COLOR);
+        }
+
+        // Rohy, do ktorých ústi aspoň jedna stena
+        for (int cornerRow = row; cornerRow <= row + 1; cornerRow++) {
+            for (int cornerColumn = column; cornerColumn <= column + 1; cornerColumn++) {
+                if (this.hasWallAtCorner(cornerRow, cornerColumn)) {
+                    this.fillRect(this.startingX + cornerColumn * size - offset, this.startingY + cornerRow * size - offset, line, line, WALL_COLOR);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prekreslí plochu bloku zložením vrstvy stien a farby stavu: pixel steny ostane,
+     * ostatné pixely dostanú farbu bloku. Steny sa nekreslia znova.
+     */
+    private void composeCell(int x, int y, int color) {
+        int x0 = Math.max(0, x);
+        int x1 = Math.min(this.width, x + this.cellSize);
+        int y0 = Math.max(0, y);
+        int y1 = Math.min(this.height, y + this.cellSize);
+        for (int row = y0; row < y1; row++) {
+            int end = row * this.width + x1;
+            for (int pixel = row * this.width + x0; pixel < end; pixel++) {
+                this.pixels[pixel] = this.wallLayer[pixel] == WALL_COLOR ? WALL_COLOR : color;
+            }
+        }
+        this.markDirty(x, y, this.cellSize, this.cellSize);
+    }
+
+    /**
+     * Prekreslí bloky okolo hrany medzi dvoma susednými blokmi po otvorení priechodu.
+     * Okrem oboch blokov sa prekreslia aj bloky pri koncoch hrany, lebo roh,
+     * do ktorého už neústi žiadna stena, zasahuje aj do nich.
+     *
+     * @param cell Index prvého bloku.
+     * @param neighbour Index susedného bloku.
+     */
+    public void rasterPassage(int cell, int neighbour) {
+        int first = Math.min(cell, neighbour);
+        int row = this.grid.rowOf(first);
+        int column = first - row * this.grid.getColumns();
+
+        // Priechod mení pravú alebo dolnú stenu menšieho z blokov
+        this.wallLayerValid = false;
+        if (this.wallsValid) {
+            this.pyramid.wallsChanged(first);
+        }
+        if (this.level > 0) {
+            this.rasterTile(row, column);
+            return;
+        }
+        boolean vertical = Math.abs(cell - neighbour) == 1;
+
+        // Zvislá hrana: bloky v riadkoch row-1..row+1, vodorovná: v stĺpcoch column-1..column+1
+        int fromRow = vertical ? row - 1 : row;
+        int toRow = row + 1;
+        int fromColumn = vertical ? column : column - 1;
+        int toColumn = column + 1;
+        for (int r = Math.max(0, fromRow); r <= Math.min(this.grid.getRows() - 1, toRow); r++) {
+            for (int c = Math.max(0, fromColumn); c <= Math.min(this.grid.getColumns() - 1, toColumn); c++) {
+                this.rasterCell(this.grid.cellIndex(r, c));
+            }
+        }
+    }
+
+    /**
+     * Vyzdvihne oblasť obrázka zmenenú od posledného vyzdvihnutia.
+     *
+     * @param area Obdĺžnik, do ktorého sa oblasť zapíše.
+     * @return true, ak sa niečo zmenilo, inak false a obdĺžnik sa nezmení.
+     */
+    public boolean takeDirtyArea(Rectangle area) {
+        if (this.dirtyMinX > this.dirtyMaxX) {
+            return false;
+        }
+        area.setBounds(this.dirtyMinX, this.dirtyMinY, this.dirtyMaxX - this.dirtyMinX, this.dirtyMaxY - this.dirtyMinY);
+        this.clearDirty();
+        return true;
+    }
+
+    /**
+     * Vracia obrázok, do ktorého sa bludisko kreslí.
+     *
+     * @return Obrázok bludiska.
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Vytvorí paletu všetkých farieb, ktoré sa v obrázku môžu objaviť
+     * (napr. pre obrázky s indexovanými farbami pri exporte do GIF alebo PNG).
+     * Index farby bloku v palete je poradie farby v Farby.
+     *
+     * @return Paleta farieb obrázka.
+     */
+    public static IndexColorModel createColorModel() {
+        int[] colors = Arrays.copyOf(PALETTE, PALETTE.length + 2 + LOD_COLORS.length);
+        colors[PALETTE.length] = WALL_COLOR;
+        colors[PALETTE.length + 1] = BACKGROUND_COLOR;
+        System.arraycopy(LOD_COLORS, 0, colors, PALETTE.length + 2, LOD_COLORS.length);
+        return new IndexColorModel(8, colors.length, colors, 0, false, -1, DataBuffer.TYPE_BYTE);
+    }
+
+    /**
+     * Nastaví úroveň detailu, veľkosť bloku a polohu bludiska. Veľkosť bloku sa obmedzí
+     * (pri úrovni L > 0 je 1) a poloha tak, aby aspoň časť bludiska zasahovala do stredu obrázka.
+     */
+    private void applyView(int newLevel, int newCellSize, int x, int y) {
+        this.wallLayerValid = false;
+        this.level = newLevel;
+        this.cellSize = newLevel > 0 ? 1 : this.clampCellSize(newCellSize);
+        this.lineWidth = Math.max(1, Math.min(3, this.fitLineWidth * this.cellSize / this.fitCellSize));
+        this.lineOffset = this.lineWidth / 2;
+
+        int mazeWidth = this.extent(this.grid.getColumns(), this.level) * this.cellSize;
+        int mazeHeight = this.extent(this.grid.getRows(), this.level) * this.cellSize;
+        this.startingX = Math.max(this.width / 2 - mazeWidth, Math.min(this.width / 2, x));
+        this.startingY = Math.max(this.height / 2 - mazeHeight, Math.min(this.height / 2, y));
+    }
+
+    /**
+     * Zmení úroveň detailu a veľkosť bloku tak, že bod obrázka [x, y] ostane nad tým
+     * istým miestom bludiska.
+     */
+    private void zoomTo(int x, int y, int newLevel, int newCellSize) {
+        // Pixely na blok sú cellSize / 2^level, pomer novej a starej mierky
+        long numerator = (long)newCellSize << this.level;
+        long denominator = (long)this.cellSize << newLevel;
+        int newX = x - (int)Math.floorDiv((x - this.startingX) * numerator, denominator);
+        int newY = y - (int)Math.floorDiv((y - this.startingY) * numerator, denominator);
+        this.applyView(newLevel, newCellSize, newX, newY);
+    }
+
+    /**
+     * Vracia počet dlaždíc úrovne detailu pozdĺž rozmeru s daným počtom blokov.
+     */
+    private int extent(int cells, int lodLevel) {
+        return ((cells - 1) >> lodLevel) + 1;
+    }
+
+    /**
+     * Prekreslí viditeľné dlaždice aktuálnej úrovne detailu, jeden pixel na dlaždicu.
+     * Pyramída sa pri prvom použití vytvorí a po hromadnej zmene prepočíta.
+     */
+    private void rasterTiles() {
+        if (this.pyramid == null) {
+            this.pyramid = new GridPyramid(this.grid, this.states, this.fitLevel);
+        } else if (!this.wallsValid) {
+            this.pyramid.rebuild();
+        } else if (!this.statesValid) {
+            this.pyramid.rebuildStates();
+        }
+        this.statesValid = true;
+        this.wallsValid = true;
+
+        int tileRows = this.pyramid.getRows(this.level);
+        int tileColumns = this.pyramid.getColumns(this.level);
+        int firstRow = Math.max(0, -this.startingY);
+        int lastRow = Math.min(tileRows, this.height - this.startingY);
+        int firstColumn = Math.max(0, -this.startingX);
+        int lastColumn = Math.min(tileColumns, this.width - this.startingX);
+        for (int row = firstRow; row < lastRow; row++) {
+            int tile = row * tileColumns + firstColumn;
+            int pixel = (this.startingY + row) * this.width + this.startingX + firstColumn;
+            for (int column = firstColumn; column < lastColumn; column++, tile++, pixel++) {
+                this.pixels[pixel] = this.tileColor(tile);
+            }
+        }
+    }
+
+    /**
+     * Prekreslí pixel dlaždice aktuálnej úrovne detailu, do ktorej patrí blok [row][column].
+     */
+    private void rasterTile(int row, int column) {
+        if (!this.statesValid || !this.wallsValid) {
+            // Pyramída sa prepočíta pri najbližšom prekreslení celého obrázka
+            return;
+        }
+        int tileRow = row >> this.level;
+        int tileColumn = column >> this.level;
+        int x = this.startingX + tileColumn;
+        int y = this.startingY + tileRow;
+        if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+            return;
+        }
+        this.pixels[y * this.width + x] = this.tileColor(tileRow * this.pyramid.getColumns(this.level) + tileColumn);
+        this.markDirty(x, y, 1, 1);
+    }
+
+    /**
+     * Vracia farbu dlaždice aktuálnej úrovne detailu.
+     */
+    private int tileColor(int tile) {
+        int shade = this.pyramid.getDensity(this.level, tile) * LOD_SHADES / 256;
+        return LOD_COLORS[this.pyramid.getState(this.level, tile) * LOD_SHADES + shade];
+    }
+
+    /**
+     * Obmedzí veľkosť bloku na 1 až polovicu obrázka (alebo predvolenú, ak je väčšia).
+     */
+    private int clampCellSize(int newCellSize) {
+        int maxCellSize = Math.max(this.fitCellSize, Math.min(this.width, this.height) / 2);
+        return Math.max(1, Math.min(maxCellSize, newCellSize));
+    }
+
+    /**
+     * Pridá obdĺžnik do zmenenej oblasti, orezaný na obrázok.
+     */
+    private void markDirty(int x, int y, int rectWidth, int rectHeight) {
+        this.dirtyMinX = Math.max(0, Math.min(this.dirtyMinX, x));
+        this.dirtyMinY = Math.max(0, Math.min(this.dirtyMinY, y));
+        this.dirtyMaxX = Math.min(this.width, Math.max(this.dirtyMaxX, x + rectWidth));
+        this.dirtyMaxY = Math.min(this.height, Math.max(this.dirtyMaxY, y + rectHeight));
+    }
+
+    /**
+     * Vyprázdni zmenenú oblasť.
+     */
+    private void clearDirty() {
+        this.dirtyMinX = Integer.MAX_VALUE;
+        this.dirtyMinY = Integer.MAX_VALUE;
+        this.dirtyMaxX = Integer.MIN_VALUE;
+        this.dirtyMaxY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Vracia true, ak je na hornej hrane bloku [edge][column] stena (edge = rows je spodný okraj).
+     */
+    private boolean hasHorizontalWall(int edge, int column) {
+        if (column < 0 || column >= this.grid.getColumns()) {
+            return false;
+        }
+        if (edge == 0 || edge == this.grid.getRows()) {
+            return true;
+        }
+        return this.grid.hasUpBorder(this.grid.cellIndex(edge, column));
+    }
+
+    /**
+     * Vracia true, ak je na ľavej hrane bloku [row][edge] stena (edge = columns je pravý okraj).
+     */
+    private boolean hasVerticalWall(int row, int edge) {
+        if (row < 0 || row >= this.grid.getRows()) {
+            return false;
+        }
+        if (edge == 0 || edge == this.grid.getColumns()) {
+            return true;
+        }
+        return this.grid.hasLeftBorder(this.grid.cellIndex(row, edge));
+    }
+
+    /**
+     * Vracia true, ak do rohu mriežky [row][column] ústi aspoň jedna stena.
+     */
+    private boolean hasWallAtCorner(int row, int column) {
+        return this.hasHorizontalWall(row, column - 1) || this.hasHorizontalWall(row, column)
+            || this.hasVerticalWall(row - 1, column) || this.hasVerticalWall(row, column);
+    }
+
+    /**
+     * Vyplní obdĺžnik farbou, časti mimo obrázka sa vynechajú.
+     */
+    private void fillRect(int x, int y, int rectWidth, int rectHeight, int color) {
+        int y0 = Math.max(0, y);
+        int y1 = Math.min(this.height, y + rectHeight);
+        for (int row = y0; row < y1; row++) {
+            this.fillSpan(row, x, x + rectWidth, color);
+        }
+    }
+
+    /**
+     * Vyplní úsek jedného riadku pixelov [x0, x1), časti mimo obrázka sa vynechajú.
+     */
+    private void fillSpan(int y, int x0, int x1, int color) {
+        int from = Math.max(0, x0);
+        int to = Math.min(this.width, x1);
+        if (from < to) {
+            Arrays.fill(this.pixels, y * this.width + from, y * this.width + to, color);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Trieda GridRenderer vykresľuje bludisko na plátno ako jeden obrázok (GridRaster).
+ * Algoritmy (ľubovoľné vlákno) len zapíšu krátku udalosť do fronty bez zámkov
+ * (StepEventQueue) a hneď pokračujú. Fronta sa vyprázdňuje vo vlákne Swingu na začiatku
+ * každého snímku plátna, takže rýchlosť algoritmu nezávisí od rýchlosti kreslenia
+ * a obrázok sa mení len vo vlákne Swingu.
+ *
+ * Ak algoritmus beží rýchlejšie, ako sa stíha kresliť, a fronta sa zaplní, ďalšie
+ * udalosti sa zahodia a v najbližšom snímku sa obrázok prekreslí celý podľa
+ * posledných známych farieb a aktuálnej mriežky.
+ *
+ * Na plátne sa dá bludisko približovať kolieskom myši (okolo kurzora, aj pod 1 pixel
+ * na blok), posúvať ťahaním a dvojklikom vrátiť na predvolený pohľad. Zmena pohľadu sa prejaví v najbližšom snímku
+ * prekreslením viditeľnej časti, takže aj veľmi veľké bludisko ostane plynulé.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.8
+ */
+public class GridRenderer implements MazeListener {
+    // Predvolená kapacita fronty udalostí
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    // Druhy udalostí, udalosť je (blok << 8) | (druh << 4) | údaj
+    private static final int EVENT_COLOR = 0;
+    private static final int EVENT_PASSAGE = 1;
+    private static final int EVENT_CLEAR = 2;
+    private static final int EVENT_COLORS_RESET = 3;
+    private static final int EVENT_WALLS = 4;
+
+    private static final Farby[] FARBY = Farby.values();
+
+    private MazeGrid grid;
+    // Obrázok bludiska, mení sa len vo vlákne Swingu
+    private GridRaster raster;
+    // Plátno, na ktorom je obrázok zobrazený, null ak obrázok zobrazuje niekto iný
+    private Platno platno;
+    // Pomocný obdĺžnik pre zmenenú oblasť obrázka
+    private Rectangle dirtyArea;
+
+    // Udalosti od algoritmov čakajúce na vykreslenie
+    private StepEventQueue queue;
+    // Posledná oznámená farba každého bloku (poradie v Farby) pre prekreslenie celého obrázka
+    private byte[] latest;
+    // true, ak sa fronta zaplnila a udalosti sa zahodili
+    private volatile boolean overflow;
+    // true, ak sa zahodila aj udalosť, ktorá mení steny
+    private volatile boolean wallsLost;
+    // true, ak sa od posledného snímku zmenil pohľad, mení sa len vo vlákne Swingu
+    private boolean viewChanged;
+
+    /**
+     * Konštruktor vykreslí aktuálny stav bludiska do obrázka a zobrazí ho na plátne.
+     *
+     * @param maze Bludisko, ktoré sa má vykresľovať.
+     * @param sizeOfPlatnoX Šírka plátna.
+     * @param sizeOfPlatnoY Výška plátna.
+     */
+    public GridRenderer(Maze maze, int sizeOfPlatnoX, int sizeOfPlatnoY) {
+        this(maze.getGrid(), sizeOfPlatnoX, sizeOfPlatnoY);
+        this.raster.takeDirtyArea(this.dirtyArea);
+
+        this.platno = Platno.dajPlatno("Labyrint", "Labyrint", sizeOfPlatnoX, sizeOfPlatnoY);
+        this.platno.drawImage(this, this.raster.getImage(), 0, 0);
+        this.platno.addFrameListener(e -> {
+            if (this.drainEvents(this.dirtyArea)) {
+                this.platno.repaintArea(this.dirtyArea.x, this.dirtyArea.y, this.dirtyArea.width, this.dirtyArea.height);
+            }
+        });
+
+        ViewControl ovladanie = new ViewControl();
+        this.platno.addMouseListener(ovladanie);
+        this.platno.addMouseMotionListener(ovladanie);
+        this.platno.addMouseWheelListener(ovladanie);
+    }
+
+    /**
+     * Konštruktor vykreslí aktuálny stav mriežky do obrázka bez plátna. Obrázok
+     * zobrazuje ten, kto pravidelne volá drainEvents (napr. panel vo vlákne Swingu).
+     *
+     * @param grid Mriežka, ktorá sa má vykresľovať.
+     * @param width Šírka obrázka.
+     * @param height Výška obrázka.
+     */
+    public GridRenderer(MazeGrid grid, int width, int height) {
+        this.grid = grid;
+        this.raster = new GridRaster(this.grid, width, height);
+        this.dirtyArea = new Rectangle();
+        this.queue = new StepEventQueue(QUEUE_CAPACITY);
+        this.latest = new byte[this.grid.getCellCount()];
+        Arrays.fill(this.latest, (byte)Farby.CIERNA.ordinal());
+        this.raster.rasterAll();
+    }
+
+    @Override
+    public void cellColorChanged(int cell, Farby farba) {
+        this.latest[cell] = (byte)farba.ordinal();
+        this.publish(((long)cell << 8) | (EVENT_COLOR << 4) | farba.ordinal());
+    }
+
+    @Override
+    public void passageOpened(int cell, int neighbour) {
+        // Priechod sa zapíše pri menšom z blokov, smer 0 = doprava, 1 = dole
+        int owner = Math.min(cell, neighbour);
+        int direction = Math.abs(cell - neighbour) == 1 ? 0 : 1;
+        this.publish(((long)owner << 8) | (EVENT_PASSAGE << 4) | direction);
+    }
+
+    @Override
+    public void mazeCleared() {
+        Arrays.fill(this.latest, (byte)Farby.CIERNA.ordinal());
+        this.publish(EVENT_CLEAR << 4);
+    }
+
+    @Override
+    public void colorsReset() {
+        Arrays.fill(this.latest, (byte)Farby.CIERNA.ordinal());
+        this.publish(EVENT_COLORS_RESET << 4);
+    }
+
+    @Override
+    public void wallsChanged() {
+        this.publish(EVENT_WALLS << 4);
+    }
+
+    /**
+     * Zapíše udalosť do fronty, pri plnej fronte označí potrebu prekresliť všetko.
+     */
+    private void publish(long event) {
+        if (!this.queue.offer(event)) {
+            if (((int)(event >>> 4) & 0xF) != EVENT_COLOR) {
+                this.wallsLost = true;
+            }
+            this.overflow = true;
+        }
+    }
+
+    /**
+     * Spracuje udalosti z fronty. Volá sa vo vlákne Swingu na začiatku snímku plátna.
+     * V jednom snímku sa spracuje najviac toľko udalostí, koľko má fronta miesta.
+     * Smie ho volať len jedno vlákno.
+     *
+     * @param area Obdĺžnik, do ktorého sa zapíše zmenená oblasť obrázka.
+     * @return true, ak sa obrázok zmenil.
+     */
+    public boolean drainEvents(Rectangle area) {
+        if (this.overflow) {
+            // Zahodené udalosti nahradí prekreslenie celého obrázka. Farby udalostí vo fronte
+            // sú už v latest, zmeny stien z fronty sa ale musia preniesť, inak by sa stratili
+            this.overflow = false;
+            boolean walls = this.wallsLost;
+            this.wallsLost = false;
+            this.queue.drain(this::applyWallEvent, this.queue.getCapacity());
+            this.raster.setStates(this.latest);
+            this.raster.invalidateWallLayer();
+            if (walls) {
+                this.raster.wallsChanged();
+            }
+            this.raster.rasterAll();
+        } else {
+            this.queue.drain(this::applyEvent, this.queue.getCapacity());
+        }
+        if (this.viewChanged) {
+            this.viewChanged = false;
+            this.raster.rasterAll();
+        }
+
+        return this.raster.takeDirtyArea(area);
+    }
+
+    /**
+     * Vracia obrázok bludiska. Mení sa len v drainEvents.
+     *
+     * @return Obrázok bludiska.
+     */
+    public BufferedImage getImage() {
+        return this.raster.getImage();
+    }
+
+    /**
+     * Prenesie do obrázka len zmenu stien z udalosti, farby sa pri zaplnenej fronte
+     * berú z posledných oznámených farieb.
+     */
+    private void applyWallEvent(long event) {
+        switch ((int)(event >>> 4) & 0xF) {
+            case EVENT_PASSAGE:
+                int cell = (int)(event >>> 8);
+                this.raster.rasterPassage(cell, ((int)event & 0xF) == 0 ? cell + 1 : cell + this.grid.getColumns());
+                break;
+            case EVENT_CLEAR:
+            case EVENT_WALLS:
+                this.raster.wallsChanged();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Prenesie jednu udalosť do obrázka.
+     */
+    private void applyEvent(long event) {
+        int cell = (int)(event >>> 8);
+        int data = (int)event & 0xF;
+        switch ((int)(event >>> 4) & 0xF) {
+            case EVENT_COLOR:
+                if (this.raster.setState(cell, FARBY[data])) {
+                    this.raster.rasterCell(cell);
+                }
+                break;
+            case EVENT_PASSAGE:
+                this.raster.rasterPassage(cell, data == 0 ? cell + 1 : cell + this.grid.getColumns());
+                break;
+            case EVENT_COLORS_RESET:
+                this.raster.clearStates();
+                break;
+            case EVENT_WALLS:
+                this.raster.wallsChanged();
+                this.raster.rasterAll();
+                break;
+            default:
+                this.raster.setAllStates(Farby.CIERNA);
+                this.raster.wallsChanged();
+                this.raster.rasterAll();
+                break;
+        }
+    }
+
+    /**
+     * Ovládanie pohľadu myšou na plátne. Udalosti myši prichádzajú vo vlákne Swingu,
+     * pohľad sa len nastaví a obrázok sa prekreslí raz v najbližšom snímku.
+     */
+    private class ViewControl extends MouseAdapter {
+        // Posledná poloha myši pri ťahaní
+        private int lastX;
+        private int lastY;
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            this.lastX = e.getX();
+            this.lastY = e.getY();
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            GridRenderer.this.raster.pan(e.getX() - this.lastX, e.getY() - this.lastY);
+            GridRenderer.this.viewChanged = true;
+            this.lastX = e.getX();
+            this.lastY = e.getY();
+        }
+
+        @Override
+        public void mouseClicked(MouseEvent e) {
+            if (e.getClickCount() == 2) {
+                GridRenderer.this.raster.fitView();
+                GridRenderer.this.viewChanged = true;
+            }
+        }
+
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            GridRenderer.this.raster.zoomStep(e.getX(), e.getY(), e.getWheelRotation() < 0);
+            GridRenderer.this.viewChanged = true;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Trieda GridRowSink zapisuje prijaté riadky bludiska do mriežky MazeGrid
+ * a voliteľne oznamuje prerazené priechody pozorovateľovi.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class GridRowSink implements MazeRowSink {
+    private MazeGrid grid;
+    // Pozorovateľ priebehu (môže byť null)
+    private MazeListener listener;
+
+    /**
+     * Konštruktor vytvorí príjemcu riadkov pre danú mriežku.
+     *
+     * @param grid Mriežka, do ktorej sa riadky zapisujú.
+     * @param listener Pozorovateľ priebehu, alebo null.
+     */
+    public GridRowSink(MazeGrid grid, MazeListener listener) {
+        this.grid = grid;
+        this.listener = listener;
+    }
+
+    @Override
+    public void rowFinished(int row, long[] rightPassages, long[] downPassages) {
+        int columns = this.grid.getColumns();
+        int rowStart = row * columns;
+        for (int column = 0; column < columns; column++) {
+            int cell = rowStart + column;
+            if ((rightPassages[column >>> 6] & (1L << column)) != 0) {
+                this.carve(cell, cell + 1);
+            }
+            if ((downPassages[column >>> 6] & (1L << column)) != 0) {
+                this.carve(cell, cell + columns);
+            }
+            if (this.listener != null) {
+                this.listener.cellColorChanged(cell, Farby.MODRA);
+            }
+        }
+        if (this.listener != null) {
+            this.listener.stepFinished();
+        }
+    }
+
+    /**
+     * Prerazí priechod medzi dvoma blokmi a oznámi to pozorovateľovi.
+     */
+    private void carve(int cell, int neighbour) {
+        this.grid.openPassage(cell, neighbour);
+        if (this.listener != null) {
+            this.listener.passageOpened(cell, neighbour);
+        }
+    }
+}
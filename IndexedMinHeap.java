@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * Trieda IndexedMinHeap predstavuje binárnu haldu nad indexmi blokov s kľúčmi typu long.
+ * Pozícia každého bloku v halde je uložená v poli, preto je možné kľúč bloku
+ * znížiť (decrease-key) a overiť prítomnosť bloku v halde v konštantnom čase.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class IndexedMinHeap {
+    // Bloky v poradí binárnej haldy
+    private int[] heap;
+    // Pozícia bloku v halde, -1 ak blok v halde nie je
+    private int[] position;
+    // Kľúč každého bloku
+    private long[] keys;
+    private int size;
+
+    /**
+     * Konštruktor vytvorí prázdnu haldu pre bloky s indexmi 0 až capacity - 1.
+     *
+     * @param capacity Počet blokov.
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new long[capacity];
+        this.size = 0;
+        Arrays.fill(this.position, -1);
+    }
+
+    /**
+     * Vracia true, ak je halda prázdna.
+     *
+     * @return true ak je halda prázdna, inak false.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Vracia počet blokov v halde.
+     *
+     * @return Počet blokov v halde.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Vracia true, ak sa blok nachádza v halde.
+     *
+     * @param item Index bloku.
+     * @return true ak je blok v halde, inak false.
+     */
+    public boolean contains(int item) {
+        return this.position[item] != -1;
+    }
+
+    /**
+     * Vracia kľúč bloku, ktorý sa nachádza v halde.
+     *
+     * @param item Index bloku.
+     * @return Kľúč bloku.
+     */
+    public long getKey(int item) {
+        return this.keys[item];
+    }
+
+    /**
+     * Vloží blok do haldy, alebo zníži jeho kľúč, ak už v halde je.
+     * Vyšší kľúč už vloženého bloku sa ignoruje.
+     *
+     * @param item Index bloku.
+     * @param key Nový kľúč bloku.
+     */
+    public void insertOrDecrease(int item, long key) {
+        int index = this.position[item];
+        if (index == -1) {
+            index = this.size++;
+            this.heap[index] = item;
+            this.position[item] = index;
+        } else if (key >= this.keys[item]) {
+            return;
+        }
+        this.keys[item] = key;
+        this.siftUp(index);
+    }
+
+    /**
+     * Vracia blok s najmenším kľúčom bez jeho odstránenia.
+     *
+     * @return Index bloku s najmenším kľúčom.
+     */
+    public int peekMin() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Halda je prázdna");
+        }
+        return this.heap[0];
+    }
+
+    /**
+     * Odstráni a vráti blok s najmenším kľúčom.
+     *
+     * @return Index bloku s najmenším kľúčom.
+     */
+    public int pollMin() {
+        int min = this.peekMin();
+        this.size--;
+        this.position[min] = -1;
+        if (this.size > 0) {
+            int last = this.heap[this.size];
+            this.heap[0] = last;
+            this.position[last] = 0;
+            this.siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Vyprázdni haldu. Trvá len toľko, koľko blokov v halde ostalo.
+     */
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.position[this.heap[i]] = -1;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Posúva prvok na danej pozícii smerom ku koreňu haldy.
+     */
+    private void siftUp(int index) {
+        int item = this.heap[index];
+        long key = this.keys[item];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = this.heap[parentIndex];
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            this.heap[index] = parent;
+            this.position[parent] = index;
+            index = parentIndex;
+        }
+        this.heap[index] = item;
+        this.position[item] = index;
+    }
+
+    /**
+     * Posúva prvok na danej pozícii smerom k listom haldy.
+     */
+    private void siftDown(int index) {
+        int item = this.heap[index];
+        long key = this.keys[item];
+        int half = this.size >>> 1;
+        while (index < half) {
+            int childIndex = (index << 1) + 1;
+            int child = this.heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < this.size && this.keys[this.heap[rightIndex]] < this.keys[child]) {
+                childIndex = rightIndex;
+                child = this.heap[rightIndex];
+            }
+            if (key <= this.keys[child]) {
+                break;
+            }
+            this.heap[index] = child;
+            this.position[child] = index;
+            index = childIndex;
+        }
+        this.heap[index] = item;
+        this.position[item] = index;
+    }
+}
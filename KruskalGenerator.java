@@ -0,0 +1,96 @@
+import java.util.SplittableRandom;
+
+/**
+ * Trieda KruskalGenerator generuje bludisko náhodným Kruskalovým algoritmom.
+ * Všetky vnútorné hrany mriežky sa náhodne zamiešajú a hrana sa prerazí vtedy,
+ * keď spája dve doteraz nespojené časti. Časti sa sledujú v poli union-find
+ * so skracovaním ciest a spájaním podľa hodnosti.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class KruskalGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        int cellCount = grid.getCellCount();
+
+        // Hrana je zakódovaná ako blok * 2 + smer (0 = doprava, 1 = dole)
+        int edgeCount = (rows * (columns - 1)) + ((rows - 1) * columns);
+        int[] edges = new int[edgeCount];
+        int index = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int column = cell % columns;
+            if (column < columns - 1) {
+                edges[index++] = cell << 1;
+            }
+            if (cell < cellCount - columns) {
+                edges[index++] = (cell << 1) | 1;
+            }
+        }
+
+        // Fisher-Yates zamiešanie hrán
+        for (int i = edgeCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = edges[i];
+            edges[i] = edges[j];
+            edges[j] = swap;
+        }
+
+        int[] parent = new int[cellCount];
+        byte[] rank = new byte[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            parent[cell] = cell;
+        }
+
+        int carved = 0;
+        for (int i = 0; i < edgeCount && carved < cellCount - 1; i++) {
+            int cell = edges[i] >>> 1;
+            int neighbour = (edges[i] & 1) == 0 ? cell + 1 : cell + columns;
+
+            int rootA = find(parent, cell);
+            int rootB = find(parent, neighbour);
+            if (rootA == rootB) {
+                continue;
+            }
+
+            // Spojenie podľa hodnosti
+            if (rank[rootA] < rank[rootB]) {
+                parent[rootA] = rootB;
+            } else if (rank[rootA] > rank[rootB]) {
+                parent[rootB] = rootA;
+            } else {
+                parent[rootB] = rootA;
+                rank[rootA]++;
+            }
+
+            grid.openPassage(cell, neighbour);
+            carved++;
+            if (listener != null) {
+                listener.passageOpened(cell, neighbour);
+                listener.cellColorChanged(cell, Farby.MODRA);
+                listener.cellColorChanged(neighbour, Farby.MODRA);
+                listener.stepFinished();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Kruskal";
+    }
+
+    /**
+     * Nájde koreň časti, do ktorej blok patrí, a skráti cestu ku koreňu (path halving).
+     */
+    private static int find(int[] parent, int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+}
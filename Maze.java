@@ -1,148 +1,149 @@
-import java.util.Random;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Trieda Maze predstavuje bludisko a obsahuje metódy na jeho generovanie, resetovanie a 
- * implementáciu algoritmov ako Dijkstra, A* a BFS. Bludisko je vytvárané pomocou algoritmu Depth First Search (DFS).
- * 
+ * Trieda Maze predstavuje bludisko a obsahuje metódy na jeho generovanie, resetovanie a
+ * implementáciu algoritmov ako Dijkstra, A* a BFS. Bludisko je predvolene vytvárané pomocou algoritmu
+ * Depth First Search (DFS), iný algoritmus sa dá nastaviť cez setGenerator.
+ * Bludisko nezávisí od plátna, vizualizácia je voliteľný pozorovateľ (MazeListener).
+ * Hranice blokov sú uložené v kompaktnej mriežke MazeGrid, bloky sú určené indexom.
+ * Začiatok a cieľ sa dajú nastaviť na ľubovoľné bloky, priechody sú neorientované.
+ * Dopyty na cestu a vzdialenosť bez vizualizácie odpovedá index stromu (MazeTreeIndex),
+ * ktorý sa vytvorí raz po generácii. Veľa dopytov naraz spracuje MazeBatchQuery.
+ * Rýchlosť vizualizácie určuje dĺžka tiku a počet krokov na snímok (StepPacer).
+ * Priebeh sa dá zaznamenať (StepRecorder) a neskôr prehrať cez createReplayer.
+ * Prerušenie vlákna algoritmu ukončí algoritmus pri najbližšom kroku výnimkou CancellationException.
+ *
  * @autor Denis Úradník
- * @verzia 0.1.6
+ * @verzia 0.3.7
  */
 public class Maze {
-    // Atributy pre jednoduché vlastnosti kocky
-    private int lineWidth;
+    // Atributy pre jednoduché vlastnosti bludiska
     private int rows;
     private int columns;
-    private int cellSize;
     private int tikLength;
+    // Počet krokov algoritmu na jeden vykreslený snímok
+    private StepPacer pacer;
 
-    // Atributy pre generáciu bludiska
-    private Block[][] wholeMazeMap;
-    private ArrayList<Block> stack;
-
-    // Atributy pre algoritmy
-    private ArrayList<Block> visitedBlocks;
-    private ArrayList<Block> unvisitedBlocks;
+    // Pripojení pozorovatelia (vykresľovanie)
+    private List<MazeListener> listeners;
 
-    private Block startingBlock;
-    private Block endingBlock;
+    // Atributy pre generáciu bludiska
+    private MazeGrid grid;
+    private MazeGenerator generator;
+    // Semienko naposledy vygenerovaného bludiska
+    private long lastSeed;
+    // Index stromu bludiska pre rýchle dopyty, null ak ešte nebol vytvorený
+    private MazeTreeIndex treeIndex;
+    // Počet zmien mriežky, ku ktorému treeIndex patrí, -1 ak index nebol vytvorený
+    private long treeIndexVersion;
+
+    // Stav hľadania pre riešiteľov, jeden pre každé vlákno
+    private ThreadLocal<SearchState> searchStates;
+
+    // Pozorovateľ, ktorý preposiela priebeh algoritmov pripojeným pozorovateľom
+    private MazeListener notifier;
+    // Pozorovateľ, ktorý preposiela zmeny pripojeným pozorovateľom bez pozastavenia
+    private MazeListener broadcaster;
+    // Pozorovateľ algoritmov bez pripojených pozorovateľov, len overuje zrušenie
+    private MazeListener cancellation;
+
+    private int startingCell;
+    private int endingCell;
 
     /**
      * Konštruktor vytvára bludisko na základe zadaných parametrov.
-     * Inicializuje 2D pole blokov a nastavuje ich rozmery a pozície.
-     * 
+     * Inicializuje mriežku blokov. Bludisko nič nevykresľuje, vykresľovanie
+     * zabezpečujú pozorovatelia pripojení cez addListener.
+     *
      * @param rows Počet riadkov.
      * @param columns Počet stĺpcov.
-     * @param sizeOfPlatnoX Šírka plátna.
-     * @param sizeOfPlatnoY Výška plátna.
      */
-    public Maze(int rows, int columns, int sizeOfPlatnoX, int sizeOfPlatnoY) {
-        Random random = new Random();
-
-        this.lineWidth = 3;
+    public Maze(int rows, int columns) {
         this.rows = rows;
         this.columns = columns;
-        this.tikLength = 200;
-
-        /*
-         * Výpočet veľkosti kocky na základe veľkosti plátna, počtu riadkov (Rows) a stĺpcov (Columns). 
-         * Použije sa menšia hodnota (šírka alebo výška plátna), aby sa zabezpečilo, že bludisko neprekročí 
-         * hranice plátna, ak je veľkosť kocky nesprávne vypočítaná.
-         */
-        if ((sizeOfPlatnoX / rows) <= (sizeOfPlatnoY / columns)) {
-            this.cellSize = (int)((sizeOfPlatnoX / rows) * 0.8);
-        } else {           
-            this.cellSize = (int)((sizeOfPlatnoY / columns) * 0.8);
-        }
+        this.tikLength = 0;
+        this.pacer = new StepPacer();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.grid = new MazeGrid(rows, columns);
+        this.generator = new DepthFirstGenerator();
+        this.treeIndexVersion = -1;
+        this.searchStates = ThreadLocal.withInitial(() -> new SearchState(this.grid.getCellCount()));
+        this.notifier = new Broadcast(true);
+        this.broadcaster = new Broadcast(false);
+        this.cancellation = new CancellationListener();
 
-        // Soft lock pre hrúbku hrany kocky
-        if (this.rows >= 200) {
-            this.lineWidth = 1;
-        } else if (this.rows >= 100) {
-            this.lineWidth = 2;
-        }
+        // Nastavenie štartovacieho a cieľového bloku
+        this.startingCell = 0;
+        this.endingCell = this.grid.getCellCount() - 1;
+        this.pacer.setCellCount(this.grid.getCellCount());
+    }
 
-        // Výpočet štartovacej pozície pre bludisko, aby bolo vycentrované vzhľadom na veľkosť plátna.
-        int startingX = (sizeOfPlatnoX / 2) - ((this.columns * this.cellSize) / 2);
-        int startingY = (sizeOfPlatnoY / 2) - ((this.rows * this.cellSize) / 2);
-
-        /*
-         * Generácia individuálnych blokov bludiska a uloženie 
-         * jednotlivých blokov do 2D poľa
-         */
-        this.wholeMazeMap = new Block[this.rows][this.columns];
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.columns; j++) {
-                this.wholeMazeMap[i][j] = new Block(i, j, startingX, startingY, this.cellSize, this.lineWidth, sizeOfPlatnoX, sizeOfPlatnoY);
-            }
-        }
+    /**
+     * Pripojí pozorovateľa zmien bludiska (napr. vykresľovač).
+     *
+     * @param listener Pozorovateľ, ktorý sa pripojí.
+     */
+    public void addListener(MazeListener listener) {
+        this.listeners.add(listener);
+    }
 
-        // Nastavenie štartovacieho a cieľového bloku
-        this.startingBlock = this.wholeMazeMap[0][0];
-        this.endingBlock = this.wholeMazeMap[this.rows - 1][this.columns - 1];
+    /**
+     * Odpojí pozorovateľa zmien bludiska.
+     *
+     * @param listener Pozorovateľ, ktorý sa odpojí.
+     */
+    public void removeListener(MazeListener listener) {
+        this.listeners.remove(listener);
     }
 
     /**
-     * Generuje bludisko pomocou Depth First Search algoritmu.
-     * 
+     * Generuje bludisko nastaveným generátorom s náhodným semienkom.
+     *
      * @return true, keď je bludisko vygenerované.
      */
     public boolean mazePathGenerator() {
-        this.stack = new ArrayList<>();
-        this.stack.add(this.startingBlock);
-
-        // Hlavný cyklus generácie bludiska
-        while (!this.stack.isEmpty()) {
-            int stackLastIndex = this.stack.size() - 1;
-            Block currentBlock = this.stack.get(stackLastIndex);
-
-            if (!currentBlock.getVisited()) {
-                if (this.stack.size() > 1) {
-                    // Vyfarbenie cestičky medzi predchádzajúcim a aktuálnym blokom
-                    Block previousBlock = this.stack.get(stackLastIndex - 1);
-                    this.updateBorders(previousBlock, currentBlock);
-                    previousBlock.setNewColor(Farby.MODRA); 
-                }
-
-                // Vyfarbenie aktuálneho bloku na červeno
-                currentBlock.setNewColor(Farby.CERVENA); 
-                currentBlock.setVisited(true); 
-            }
+        return this.mazePathGenerator(new SplittableRandom().nextLong());
+    }
 
-            // Získanie zoznamu platných pohybov z aktuálneho bloku
-            ArrayList<Block> validMoves = this.nextValidMoves(currentBlock.getRowPosition(), currentBlock.getColumnPosition());
+    /**
+     * Generuje bludisko nastaveným generátorom. Rovnaké semienko
+     * vždy vytvorí rovnaké bludisko. Doterajšie priechody sa najprv zrušia.
+     *
+     * @param seed 64-bitové semienko generátora náhodných čísel.
+     * @return true, keď je bludisko vygenerované.
+     */
+    public boolean mazePathGenerator(long seed) {
+        this.lastSeed = seed;
+        // Generátory predpokladajú mriežku bez priechodov
+        this.resetMaze();
+        MazeListener listener = this.listeners.isEmpty() ? this.cancellation : this.notifier;
 
-            if (!validMoves.isEmpty()) {
-                // Vyber náhodný platný pohyb
-                currentBlock.setNewColor(Farby.MODRA); 
-                Block nextBlock = validMoves.get(new Random().nextInt(validMoves.size()));
-                nextBlock.setNewColor(Farby.CERVENA);
-                this.stack.add(nextBlock);
-                currentBlock.setNextNeighbour(nextBlock);
+        this.generator.generate(this.grid, this.startingCell, seed, listener);
 
-                // Nastavenie pôvodu origin pre spätnú rekonštrukciu cesty
-                if (nextBlock.getOrigin() == null) {
-                    nextBlock.setOrigin(currentBlock);
-                }
-            } else {
-                // Ak sa nemáme kam pohnúť, vraciame sa späť
-                currentBlock.setNewColor(Farby.CIERNA); 
-                this.stack.remove(stackLastIndex);
-
-                // Ak je v stacku ešte nejaký blok, nastavíme jeho farbu na červenú
-                if (!this.stack.isEmpty()) {
-                    Block previousBlock = this.stack.get(this.stack.size() - 1);
-                    previousBlock.setNewColor(Farby.CERVENA); 
-                }
-            }
+        // Generátory si farbia bloky po svojom, na konci sú všetky čierne
+        this.resetColors();
+        return true;
+    }
 
-            try {
-                Thread.sleep(this.tikLength);
-            } catch (InterruptedException e) { }
-        }
+    /**
+     * Nastaví algoritmus, ktorým sa bude generovať bludisko.
+     *
+     * @param generator Generátor bludiska.
+     */
+    public void setGenerator(MazeGenerator generator) {
+        this.generator = generator;
+    }
 
-        this.stack = null;
-        return true;
+    /**
+     * Získa algoritmus, ktorým sa generuje bludisko.
+     *
+     * @return Generátor bludiska.
+     */
+    public MazeGenerator getGenerator() {
+        return this.generator;
     }
 
     /**
@@ -151,340 +152,189 @@ public class Maze {
     public void dijkstraAlg() {
         // Resetovanie hodnôt bludiska
         this.resetColors();
-        this.resetCostOfBlocks();
-
-        // Vytvorenie nových ArrayListov pre algoritmus
-        this.visitedBlocks = new ArrayList<>();
-        this.unvisitedBlocks = new ArrayList<>();
 
-        // Inicializácia unvisitedBlocks s všetkými blokmi
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.columns; j++) {
-                this.unvisitedBlocks.add(this.wholeMazeMap[i][j]);
-            }
-        }
-
-        // Nastavenie ceny začiatočného bloku
-        Block currentBlock = this.startingBlock;
-        currentBlock.setCostOfBlock(0);
-        currentBlock.setNewColor(Farby.CERVENA);
-
-        while (true) {
-            if (this.unvisitedBlocks.isEmpty() || currentBlock == null) {
-                this.resetColors();
-
-                // Rekonštrukcia cesty späť od koncového bloku
-                if (this.endingBlock.getCostOfBlock() != Integer.MAX_VALUE) {
-                    Block pathBlock = this.endingBlock;
-                    while (pathBlock != null) {
-                        pathBlock.setNewColor(Farby.MODRA); 
-                        pathBlock = pathBlock.getOrigin(); 
-                    }
-                }
-
-                // Koniec algoritmu ak list s nenavštívenými blokmi je prázdny
-                break;
-            }
-
-            currentBlock.setNewColor(Farby.MODRA);
-
-            // Aktualizácia susedov
-            if (currentBlock.getNextNeighbourBlock() != null) {
-                for (Block neighbor : currentBlock.getNextNeighbourBlock()) {
-                    if (!this.visitedBlocks.contains(neighbor)) {
-                        int newCost = currentBlock.getCostOfBlock() + 1; 
-                        if (newCost < neighbor.getCostOfBlock()) {
-                            neighbor.setCostOfBlock(newCost);
-                            neighbor.setOrigin(currentBlock);
-                        }
-                        neighbor.setNewColor(Farby.ZELENA);
-                    }
-                }
-            }
-
-            // Premiestniť blok do zoznamu navštívených
-            this.visitedBlocks.add(currentBlock);
-            this.unvisitedBlocks.remove(currentBlock);
-
-            // Nájsť blok s najmenšou cenou v nenavštívených blokoch
-            currentBlock = null;
-            for (Block b : this.unvisitedBlocks) {
-                if (currentBlock == null || b.getCostOfBlock() < currentBlock.getCostOfBlock()) {
-                    currentBlock = b;
-                }
-            }
+        int[] path = this.createSolver().dijkstra(this.startingCell, this.endingCell);
 
-            // Pauza pre vizualizáciu
-            try {
-                Thread.sleep(this.tikLength);
-            } catch (InterruptedException e) { }
-        }
-
-        // Nastavenie listov na NULL
-        this.unvisitedBlocks = null;
-        this.visitedBlocks = null;
+        // Vyfarbenie nájdenej cesty
+        this.resetColors();
+        this.showPath(path);
     }
 
     /**
      * Spustí algoritmus A*, aby našiel najkratšiu cestu v bludisku
      */
     public void aStarAlg() {
-        // Resetovanie ceny a farby blokov
+        // Resetovanie farby blokov
         this.resetColors();
-        this.resetCostOfBlocks();
-
-        this.startingBlock.setCostOfBlock(0);
-
-        // visitedBlocks obsahuje bloky na skumanie
-        this.unvisitedBlocks = new ArrayList<>();
-        // ClosedSet obsahuje bloky ktore už boli preskúmané
-        this.visitedBlocks = new ArrayList<>();
-
-        this.unvisitedBlocks.add(this.startingBlock);
-        this.startingBlock.setNewColor(Farby.CERVENA);
-
-        while (!this.unvisitedBlocks.isEmpty()) {
-            // Nájsť blok s najnižším f = g + h v unvisitedBlocks
-            Block current = null;
-            int bestF = Integer.MAX_VALUE;
-            for (Block b : this.unvisitedBlocks) {
-                int g = b.getCostOfBlock();
-                int h = this.heuristic(b);
-                int f = g + h;
-                if (f < bestF) {
-                    bestF = f;
-                    current = b;
-                }
-            }
-
-            if (current == null) {
-                // Žiadna cesta nenájdená alebo unvisitedBlocks je prázdny
-                return;
-            }
-
-            // Ak sme dosiahli cieľový blok
-            if (current == this.endingBlock) {
-                // Rekonštrukcia cesty späť cez origin
-                this.resetColors();
-                Block pathBlock = current;
-                while (pathBlock != null) {
-                    pathBlock.setNewColor(Farby.MODRA);
-                    pathBlock = pathBlock.getOrigin();
-                }
-                return;
-            }
-
-            // Presun current z unvisitedBlocks do visitedBlocks
-            this.unvisitedBlocks.remove(current);
-            this.visitedBlocks.add(current);
-            current.setNewColor(Farby.MODRA);
-
-            // Získanie susedov
-            ArrayList<Block> neighbors = new ArrayList<>();
-            if (current.getNextNeighbourBlock() != null) {
-                for (Block b : current.getNextNeighbourBlock()) {
-                    if (b != null) {
-                        neighbors.add(b);
-                    }
-                }
-            }
 
-            for (Block neighbor : neighbors) {
-                if (this.visitedBlocks.contains(neighbor)) {
-                    // Tento sused už bol spracovaný
-                    continue;
-                }
+        int[] path = this.createSolver().aStar(this.startingCell, this.endingCell);
 
-                int tentativeG = current.getCostOfBlock() + 1; 
-                if (!this.unvisitedBlocks.contains(neighbor)) {
-                    this.unvisitedBlocks.add(neighbor);
-                    neighbor.setOrigin(current);
-                    neighbor.setCostOfBlock(tentativeG);
-                    neighbor.setNewColor(Farby.ZELENA);
-                } else if (tentativeG < neighbor.getCostOfBlock()) {
-                    // Nájdeme lacnejšiu cestu k tomuto susedovi
-                    neighbor.setOrigin(current);
-                    neighbor.setCostOfBlock(tentativeG);
-                    neighbor.setNewColor(Farby.ZELENA);
-                }
-            }
-
-            // Pauza pre vizualizáciu
-            try {
-                Thread.sleep(this.tikLength);
-            } catch (InterruptedException e) { }
-        }
-        
-        // Nastavenie listov na NULL
-        this.unvisitedBlocks = null;
-        this.visitedBlocks = null;
+        // Vyfarbenie nájdenej cesty
+        this.resetColors();
+        this.showPath(path);
     }
 
     /**
-     * Spustí jednoduchý Breadth-First Search (BFS) algoritmus na hľadanie 
+     * Spustí jednoduchý Breadth-First Search (BFS) algoritmus na hľadanie
      * cesty v bludisku
      */
     public void bfsAlg() {
         // Resetovanie bludiska
         this.resetColors();
-        this.resetCostOfBlocks();
-
-        // Nastavenie začiatočného bloku
-        this.startingBlock.setCostOfBlock(0);
-        this.startingBlock.setOrigin(null); 
-        this.startingBlock.setNewColor(Farby.CERVENA);
-
-        // Vytvoríme stack na BFS pomocou ArrayList a vložíme do nej štartovací blok
-        this.stack = new ArrayList<Block>();
-        this.stack.add(this.startingBlock);
-
-        // Kým máme prvky v stacku, spracovávame ich postupne
-        while (!this.stack.isEmpty()) {
-            // Odstránime prvý prvok zo staku
-            Block current = this.stack.remove(0);
-
-            //Ak je to cieľový blok, rekonštruujeme cestu a skončíme
-            if (current == this.endingBlock) {
-                // Rekonštrukujeme cestu späť cez origin
-                this.resetColors();
-                Block pathBlock = current;
-                while (pathBlock != null) {
-                    pathBlock.setNewColor(Farby.MODRA);
-                    pathBlock = pathBlock.getOrigin();
-                }
-                return; 
-            }
 
-            // Získame susedov pomocou getNextNeighbourBlock()
-            Block[] neighborsArray = current.getNextNeighbourBlock();
+        int[] path = this.createSolver().bfs(this.startingCell, this.endingCell);
 
-            // Vytvoríme nový ArrayList pre susedov
-            ArrayList<Block> neighbors = new ArrayList<>();
-            if (neighborsArray != null) {
-                for (int i = 0; i < neighborsArray.length; i++) {
-                    neighbors.add(neighborsArray[i]);
-                }
-            }
-
-            // Prejdeme všetkých susedov: ak ešte neboli spracovaní, nastavíme ich parametre.
-            for (Block neighbor : neighbors) {
-                // Ak má neighbor cenu == MAX_VALUE, znamená to, že ho ešte BFS nenavštívil
-                if (neighbor.getCostOfBlock() == Integer.MAX_VALUE) {
-                    // Zvýšime cost o 1
-                    neighbor.setCostOfBlock(current.getCostOfBlock() + 1);
-                    // Zapamätáme si pôvod, kvôli spätnej rekonštrukcii cesty
-                    neighbor.setOrigin(current);
-                    // Nastavíme susedovi farbu
-                    neighbor.setNewColor(Farby.ZELENA);
-                    // Zaradíme ho do BFS stacku
-                    this.stack.add(neighbor);
-                }
-            }
-
-            // Samotný current považujeme za spracovaný a môžeme ho označiť inou farbou
-            current.setNewColor(Farby.MODRA);
+        // Vyfarbenie nájdenej cesty
+        this.resetColors();
+        this.showPath(path);
+    }
 
-            try {
-                Thread.sleep(this.tikLength);
-            } catch (InterruptedException e) { }
+    /**
+     * Nájde najkratšiu cestu medzi dvoma ľubovoľnými blokmi bludiska bez vizualizácie.
+     * Dokonalé bludisko odpovedá z indexu stromu v čase O(dĺžka cesty),
+     * inak sa použije BFS.
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Cesta od začiatku po cieľ ako pole indexov, alebo null ak cesta neexistuje.
+     */
+    public int[] findPath(int start, int end) {
+        this.checkCell(start);
+        this.checkCell(end);
+        MazeTreeIndex index = this.getTreeIndex();
+        if (index != null) {
+            return index.path(start, end);
         }
-        this.stack = null;
-    }
-
-    /**
-     * Aktualizuje hrany medzi dvoma susednými blokmi na základe ich pozícií.
-     * 
-     * @param previousBlock Predchádzajúci blok.
-     * @param currentBlock Aktuálny blok.
-     */
-    private void updateBorders(Block previousBlock, Block currentBlock) {
-        int oldRow = previousBlock.getRowPosition();
-        int oldColumn = previousBlock.getColumnPosition();
-
-        int newRow = currentBlock.getRowPosition();
-        int newColumn = currentBlock.getColumnPosition();
-
-        // Nastavenie hraníc
-        if (oldRow > newRow) { 
-            currentBlock.setNewBorders(currentBlock.getUpBorder(), false, currentBlock.getLeftBorder(), currentBlock.getRightBorder());
-            previousBlock.setNewBorders(false, previousBlock.getDownBorder(), previousBlock.getLeftBorder(), previousBlock.getRightBorder());
-        } else if (oldRow < newRow) { 
-            currentBlock.setNewBorders(false, currentBlock.getDownBorder(), currentBlock.getLeftBorder(), currentBlock.getRightBorder());
-            previousBlock.setNewBorders(previousBlock.getUpBorder(), false, previousBlock.getLeftBorder(), previousBlock.getRightBorder());
-        } else if (oldColumn > newColumn) { 
-            currentBlock.setNewBorders(currentBlock.getUpBorder(), currentBlock.getDownBorder(), currentBlock.getLeftBorder(), false);
-            previousBlock.setNewBorders(previousBlock.getUpBorder(), previousBlock.getDownBorder(), false, previousBlock.getRightBorder());
-        } else if (oldColumn < newColumn) { 
-            currentBlock.setNewBorders(currentBlock.getUpBorder(), currentBlock.getDownBorder(), false, currentBlock.getRightBorder());
-            previousBlock.setNewBorders(previousBlock.getUpBorder(), previousBlock.getDownBorder(), previousBlock.getLeftBorder(), false);
+        return new MazeSolver(this.grid, null, this.searchStates.get()).bfs(start, end);
+    }
+
+    /**
+     * Vracia dĺžku najkratšej cesty (počet priechodov) medzi dvoma blokmi bez vizualizácie.
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Počet priechodov na ceste, alebo -1 ak cesta neexistuje.
+     */
+    public int distance(int start, int end) {
+        this.checkCell(start);
+        this.checkCell(end);
+        MazeTreeIndex index = this.getTreeIndex();
+        if (index != null) {
+            return index.distance(start, end);
         }
+        int[] path = new MazeSolver(this.grid, null, this.searchStates.get()).bfs(start, end);
+        return path == null ? -1 : path.length - 1;
     }
 
     /**
-     * Vráti zoznam možných pohybov pre daný blok na základe jeho pozície.
-     * 
-     * @param currentRow Aktuálny riadok.
-     * @param currentColumn Aktuálny stĺpec.
-     * 
-     * @return Zoznam platných pohybov.
+     * Nájde najkratšie cesty pre dávku dopytov (sources[i], targets[i]) bez vizualizácie.
+     * Dopyty s rovnakým začiatkom zdieľajú jedno hľadanie a skupiny bežia paralelne.
+     *
+     * @param sources Začiatočné bloky dopytov.
+     * @param targets Cieľové bloky dopytov.
+     * @return Pole ciest v poradí dopytov, cesta je null ak neexistuje.
      */
-    private ArrayList<Block> nextValidMoves(int currentRow, int currentColumn) {
-        // Logika pre validný pohyb
-        boolean canGoLeft = currentColumn > 0;                             
-        boolean canGoRight = currentColumn < this.columns - 1;   
-        boolean canGoUp = currentRow > 0;                                  
-        boolean canGoDown = currentRow < this.rows - 1;          
+    public int[][] findPaths(int[] sources, int[] targets) {
+        return this.createBatchQuery().paths(sources, targets);
+    }
 
-        ArrayList<Block> possibleMovement = new ArrayList<>();
+    /**
+     * Vypočíta dĺžky najkratších ciest pre dávku dopytov (sources[i], targets[i]) bez vizualizácie.
+     *
+     * @param sources Začiatočné bloky dopytov.
+     * @param targets Cieľové bloky dopytov.
+     * @return Pole vzdialeností v poradí dopytov, -1 ak cesta neexistuje.
+     */
+    public int[] distances(int[] sources, int[] targets) {
+        return this.createBatchQuery().distances(sources, targets);
+    }
 
-        // Kontrola pre korektný pohyb
-        if (canGoUp && !this.wholeMazeMap[currentRow - 1][currentColumn].getVisited()) {
-            possibleMovement.add(this.wholeMazeMap[currentRow - 1][currentColumn]);
-        }
-        if (canGoLeft && !this.wholeMazeMap[currentRow][currentColumn - 1].getVisited()) {
-            possibleMovement.add(this.wholeMazeMap[currentRow][currentColumn - 1]);
-        }
-        if (canGoDown && !this.wholeMazeMap[currentRow + 1][currentColumn].getVisited()) {
-            possibleMovement.add(this.wholeMazeMap[currentRow + 1][currentColumn]);
-        }
-        if (canGoRight && !this.wholeMazeMap[currentRow][currentColumn + 1].getVisited()) {
-            possibleMovement.add(this.wholeMazeMap[currentRow][currentColumn + 1]);
-        }    
+    /**
+     * Vytvorí dávkové dopyty nad aktuálnym bludiskom. Pomocné polia BFS patria len
+     * jednej dávke, vlákna spoločného ForkJoinPool si po dávke nič nenechajú.
+     */
+    private MazeBatchQuery createBatchQuery() {
+        return new MazeBatchQuery(this.grid, this.getTreeIndex());
+    }
 
-        return possibleMovement;    
+    /**
+     * Získa index stromu aktuálneho bludiska. Index sa vytvorí pri prvom dopyte
+     * po zmene mriežky a kým sa mriežka nezmení, opakovane sa používa. Zmenu pozná
+     * podľa počtu zmien mriežky, takže index nezastará ani pri dopyte počas generovania.
+     *
+     * @return Index stromu, alebo null ak mriežka nie je dokonalé bludisko.
+     */
+    public synchronized MazeTreeIndex getTreeIndex() {
+        // Počet zmien sa číta pred mriežkou, zmena počas vytvárania indexu vyvolá nové vytvorenie
+        long version = this.grid.getModificationCount();
+        if (version != this.treeIndexVersion) {
+            this.treeIndex = MazeTreeIndex.build(this.grid);
+            this.treeIndexVersion = version;
+        }
+        return this.treeIndex;
+    }
+    /**
+     * Vracia true, ak je mriežka úplné dokonalé bludisko (všetky bloky sú spojené
+     * a bez slučiek), napr. po dokončenom generovaní.
+     *
+     * @return true pre dokonalé bludisko.
+     */
+    public boolean isPerfect() {
+        return this.getTreeIndex() != null;
     }
 
     /**
-     * Heuristická funkcia pre algoritmus A*: Manhattanská vzdialenosť k cieľu.
+     * Vytvorí prehrávač záznamu nad mriežkou bludiska. Prehrávač hneď vráti mriežku
+     * na začiatok záznamu a zmeny oznamuje pripojeným pozorovateľom bez pozastavenia.
+     * Každá zmena priechodu pri prehrávaní zvýši počet zmien mriežky, takže index stromu
+     * sa pri ďalšom dopyte vytvorí pre práve prehraný stav.
+     *
+     * @param log Záznam s rovnakými rozmermi ako bludisko.
+     * @return Prehrávač záznamu na jeho začiatku.
      */
-    private int heuristic(Block b) {
-        int r = b.getRowPosition();
-        int c = b.getColumnPosition();
-        int goalR = this.endingBlock.getRowPosition();
-        int goalC = this.endingBlock.getColumnPosition();
-        return (goalR - r) + (goalC - c);
+    public StepReplayer createReplayer(StepLog log) {
+        return new StepReplayer(log, this.grid, this.broadcaster);
     }
 
     /**
-     * Metóda resetuje hodnotu bloku na maximálnu hodnotu Integeru, a nastaví origin na null.
+     * Vyfarbí nájdenú cestu, ak existuje.
      */
-    private void resetCostOfBlocks() {
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.columns; j++) {
-                this.wholeMazeMap[i][j].setCostOfBlock(Integer.MAX_VALUE); 
-                this.wholeMazeMap[i][j].setOrigin(null);
+    private void showPath(int[] path) {
+        if (path != null) {
+            for (int cell : path) {
+                this.setColor(cell, Farby.MODRA);
             }
         }
     }
 
+    /**
+     * Vytvorí riešiteľa nad mriežkou bludiska. Ak sú pripojení pozorovatelia,
+     * riešiteľ im oznamuje priebeh a po každom kroku sa pozastaví. Bez nich
+     * sa po každom kroku len overí, či beh nebol zrušený.
+     * Riešiteľ použije stav hľadania aktuálneho vlákna, takže viac vlákien môže
+     * hľadať naraz a opakované hľadanie nemaže polia.
+     */
+    private MazeSolver createSolver() {
+        return new MazeSolver(this.grid, this.listeners.isEmpty() ? this.cancellation : this.notifier, this.searchStates.get());
+    }
+
+    /**
+     * Oznámi pozorovateľom novú farbu bloku.
+     */
+    private void setColor(int cell, Farby farba) {
+        for (MazeListener listener : this.listeners) {
+            listener.cellColorChanged(cell, farba);
+        }
+    }
+
     /**
      * Metóda kontroluje, či je pohyb na danú pozíciu platný.
-     * 
+     *
      * @param currentRow Aktuálny riadok.
      * @param currentColumn Aktuálny stĺpec.
      * @param targetRow Cieľový riadok.
      * @param targetColumn Cieľový stĺpec.
-     * 
+     *
      * @return true, ak je pohyb platný, inak false.
      */
     public boolean isValidMove(int currentRow, int currentColumn, int targetRow, int targetColumn) {
@@ -493,26 +343,23 @@ public class Maze {
             return false;
         }
 
-        // Získanie aktuálneho a cieľového bloku
-        Block currentBlock = this.wholeMazeMap[currentRow][currentColumn];
-        Block targetBlock = this.wholeMazeMap[targetRow][targetColumn];
+        // Získanie masky priechodov aktuálneho bloku
+        int mask = this.grid.passageMask(this.grid.cellIndex(currentRow, currentColumn));
 
         // Kontrola na zablokované hrany
-        if (currentRow > targetRow && currentBlock.getUpBorder()) {
+        if (currentRow > targetRow && (mask & MazeGrid.PASSAGE_UP) == 0) {
             return false; // Pohyb nahor
         }
 
-
-        if (currentRow < targetRow && currentBlock.getDownBorder()) {
+        if (currentRow < targetRow && (mask & MazeGrid.PASSAGE_DOWN) == 0) {
             return false; // Pohyb nadol
         }
 
-        if (currentColumn > targetColumn && currentBlock.getLeftBorder()) {
+        if (currentColumn > targetColumn && (mask & MazeGrid.PASSAGE_LEFT) == 0) {
             return false; // Pohyb doľava
         }
 
-
-        if (currentColumn < targetColumn && currentBlock.getRightBorder()) {
+        if (currentColumn < targetColumn && (mask & MazeGrid.PASSAGE_RIGHT) == 0) {
             return false; // Pohyb doprava
         }
 
@@ -521,58 +368,91 @@ public class Maze {
 
     /**
      * Nastaví farbu pre daný blok.
-     * 
+     *
      * @param row Riadiaci riadok.
      * @param column Riadiaci stĺpec.
      * @param farba Farba, ktorá sa nastaví.
      */
     public void colorBlock(int row, int column, Farby farba) {
         if (row >= 0 && row < rows && column >= 0 && column < columns) {
-            this.wholeMazeMap[row][column].setNewColor(farba);
+            this.setColor(this.grid.cellIndex(row, column), farba);
         }
     }
 
     /**
      * Ukáže alebo skryje začiatočný a konečný blok bludiska.
-     * 
+     *
      * @param status true na zobrazenie, false na skrytie.
      */
     public void showTheMazeEntryAndExit(boolean status) {
         if (status) {
-            this.startingBlock.setNewColor(Farby.CIERNA);
-            this.endingBlock.setNewColor(Farby.CIERNA);
+            this.setColor(this.startingCell, Farby.CIERNA);
+            this.setColor(this.endingCell, Farby.CIERNA);
         } else {
-            this.startingBlock.setNewColor(Farby.CERVENA);
-            this.endingBlock.setNewColor(Farby.ZELENA);
+            this.setColor(this.startingCell, Farby.CERVENA);
+            this.setColor(this.endingCell, Farby.ZELENA);
         }
     }
 
     /**
      * Resetuje bludisko do pôvodného stavu.
-     * Nastaví všetky bloky na predvolené hodnoty.
+     * Uzavrie všetky priechody a oznámi to pozorovateľom.
      */
     public void resetMaze() {
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.columns; j++) {
-                this.wholeMazeMap[i][j].resetToDefault();
-            }
+        this.grid.clear();
+        for (MazeListener listener : this.listeners) {
+            listener.mazeCleared();
         }
     }
 
     /**
-     * Nastaví každý blok na čiernu farbu.
+     * Nastaví každý blok na čiernu farbu jednou udalosťou pre pozorovateľov.
      */
     private void resetColors() {
-        for (int i = 0; i < this.rows; i++) {
-            for (int j = 0; j < this.columns; j++) {
-                this.wholeMazeMap[i][j].setNewColor(Farby.CIERNA);
+        for (MazeListener listener : this.listeners) {
+            listener.colorsReset();
+        }
+    }
+
+    /**
+     * Overí, že riadok a stĺpec ležia v bludisku.
+     */
+    private void checkCell(int row, int column) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            throw new IllegalArgumentException("Blok [" + row + "][" + column + "] nie je v bludisku");
+        }
+    }
+
+    /**
+     * Overí, že index bloku leží v bludisku.
+     */
+    private void checkCell(int cell) {
+        if (cell < 0 || cell >= this.grid.getCellCount()) {
+            throw new IllegalArgumentException("Blok " + cell + " nie je v bludisku");
+        }
+    }
+
+    /**
+     * Pozastaví algoritmus kvôli vizualizácii. Ak je nastavený počet krokov na snímok,
+     * po nich počká na vykreslenie snímku, inak sa uspí na dĺžku jedného tiku.
+     * Pri nulovej dĺžke tiku a bez obmedzenia krokov na snímok (napr. bez plátna)
+     * algoritmus beží naplno.
+     */
+    private void pause() {
+        if (this.pacer.getStepsPerFrame() > 0) {
+            this.pacer.stepFinished();
+        } else if (this.tikLength > 0) {
+            try {
+                Thread.sleep(this.tikLength);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
     }
 
     /**
      * Nastaví dĺžku jedného tiku pre generáciu a algoritmy.
-     * 
+     *
      * @param newTikLength Nová dĺžka tiku v milisekundách.
      */
     public void setTikLength(int newTikLength) {
@@ -581,7 +461,7 @@ public class Maze {
 
     /**
      * Získa aktuálnu dĺžku jedného tiku pre vizualizáciu.
-     * 
+     *
      * @return Dĺžka tiku v milisekundách.
      */
     public int getTikLength() {
@@ -589,12 +469,169 @@ public class Maze {
     }
 
     /**
-     * Získa začiatočný blok bludiska.
-     * 
-     * @return Začiatočný blok.
+     * Získa tempo vizualizácie v krokoch algoritmu na jeden snímok.
+     *
+     * @return Tempo vizualizácie.
+     */
+    public StepPacer getPacer() {
+        return this.pacer;
+    }
+
+    /**
+     * Získa riadok začiatočného bloku bludiska.
+     *
+     * @return Riadok začiatočného bloku.
      */
-    public Block getStartingBlock() {
-        return this.startingBlock;
+    public int getStartingRow() {
+        return this.grid.rowOf(this.startingCell);
     }
 
-}
\ No newline at end of file
+    /**
+     * Získa stĺpec začiatočného bloku bludiska.
+     *
+     * @return Stĺpec začiatočného bloku.
+     */
+    public int getStartingColumn() {
+        return this.grid.columnOf(this.startingCell);
+    }
+
+    /**
+     * Nastaví začiatočný blok bludiska, z ktorého vychádzajú generátory aj algoritmy.
+     *
+     * @param row Riadok začiatočného bloku.
+     * @param column Stĺpec začiatočného bloku.
+     */
+    public void setStartingCell(int row, int column) {
+        this.checkCell(row, column);
+        this.startingCell = this.grid.cellIndex(row, column);
+    }
+
+    /**
+     * Nastaví cieľový blok bludiska, ku ktorému hľadajú cestu algoritmy.
+     *
+     * @param row Riadok cieľového bloku.
+     * @param column Stĺpec cieľového bloku.
+     */
+    public void setEndingCell(int row, int column) {
+        this.checkCell(row, column);
+        this.endingCell = this.grid.cellIndex(row, column);
+    }
+
+    /**
+     * Získa riadok cieľového bloku bludiska.
+     *
+     * @return Riadok cieľového bloku.
+     */
+    public int getEndingRow() {
+        return this.grid.rowOf(this.endingCell);
+    }
+
+    /**
+     * Získa stĺpec cieľového bloku bludiska.
+     *
+     * @return Stĺpec cieľového bloku.
+     */
+    public int getEndingColumn() {
+        return this.grid.columnOf(this.endingCell);
+    }
+
+    /**
+     * Získa semienko, z ktorého bolo vygenerované posledné bludisko.
+     *
+     * @return Semienko poslednej generácie.
+     */
+    public long getLastSeed() {
+        return this.lastSeed;
+    }
+
+    /**
+     * Získa mriežku bludiska.
+     *
+     * @return Mriežka bludiska.
+     */
+    public MazeGrid getGrid() {
+        return this.grid;
+    }
+
+    /**
+     * Získa počet riadkov bludiska.
+     *
+     * @return Počet riadkov.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Získa počet stĺpcov bludiska.
+     *
+     * @return Počet stĺpcov.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Pozorovateľ, ktorý preposiela zmeny všetkým pripojeným pozorovateľom.
+     * Pri priebehu algoritmov sa po každom kroku pozastaví kvôli vizualizácii.
+     */
+    private class Broadcast implements MazeListener {
+        private final boolean paced;
+
+        Broadcast(boolean paced) {
+            this.paced = paced;
+        }
+
+        @Override
+        public void cellColorChanged(int cell, Farby farba) {
+            Maze.this.setColor(cell, farba);
+        }
+
+        @Override
+        public void passageOpened(int cell, int neighbour) {
+            for (MazeListener listener : Maze.this.listeners) {
+                listener.passageOpened(cell, neighbour);
+            }
+        }
+
+        @Override
+        public void passageClosed(int cell, int neighbour) {
+            for (MazeListener listener : Maze.this.listeners) {
+                listener.passageClosed(cell, neighbour);
+            }
+        }
+
+        @Override
+        public void mazeCleared() {
+            for (MazeListener listener : Maze.this.listeners) {
+                listener.mazeCleared();
+            }
+        }
+
+        @Override
+        public void colorsReset() {
+            Maze.this.resetColors();
+        }
+
+        @Override
+        public void wallsChanged() {
+            for (MazeListener listener : Maze.this.listeners) {
+                listener.wallsChanged();
+            }
+        }
+
+        @Override
+        public void stepFinished() {
+            for (MazeListener listener : Maze.this.listeners) {
+                listener.stepFinished();
+            }
+            if (this.paced) {
+                Maze.this.pause();
+                // Prerušené vlákno znamená zrušenie algoritmu
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Algoritmus bol zrušený");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Trieda MazeBatchQuery odpovedá naraz na veľa dopytov na cestu medzi dvojicami blokov.
+ * Dopyty sa zoskupia podľa začiatočného bloku a pre každý začiatok sa spustí jedno BFS,
+ * ktoré sa zastaví hneď, ako dosiahne všetky ciele svojej skupiny. Skupiny sa
+ * spracúvajú paralelne vo ForkJoinPool. Pomocné polia BFS patria len jednej dávke:
+ * úloha si stav hľadania požičia zo zásoby dávky a po skupinách ho vráti, takže
+ * stavov je najviac toľko, koľko úloh beží naraz, a po dávke sa uvoľnia.
+ *
+ * Ak je k dispozícii index stromu (dokonalé bludisko), odpovede sa čítajú priamo z neho.
+ * Výsledky sú len polia indexov alebo vzdialenosti, nič sa nevyfarbuje.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.4
+ */
+public class MazeBatchQuery {
+    private final MazeGrid grid;
+    // Index stromu dokonalého bludiska, alebo null
+    private final MazeTreeIndex treeIndex;
+    private final ForkJoinPool pool;
+
+    /**
+     * Konštruktor vytvorí dávkové dopyty nad mriežkou v spoločnom ForkJoinPool.
+     *
+     * @param grid Mriežka bludiska.
+     * @param treeIndex Index stromu bludiska, alebo null ak mriežka nie je dokonalé bludisko.
+     */
+    public MazeBatchQuery(MazeGrid grid, MazeTreeIndex treeIndex) {
+        this(grid, treeIndex, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Konštruktor vytvorí dávkové dopyty nad mriežkou.
+     *
+     * @param grid Mriežka bludiska.
+     * @param treeIndex Index stromu bludiska, alebo null ak mriežka nie je dokonalé bludisko.
+     * @param pool ForkJoinPool, v ktorom sa skupiny dopytov spracujú.
+     */
+    public MazeBatchQuery(MazeGrid grid, MazeTreeIndex treeIndex, ForkJoinPool pool) {
+        this.grid = grid;
+        this.treeIndex = treeIndex;
+        this.pool = pool;
+    }
+
+    /**
+     * Nájde najkratšie cesty pre všetky dvojice (sources[i], targets[i]).
+     *
+     * @param sources Začiatočné bloky dopytov.
+     * @param targets Cieľové bloky dopytov.
+     * @return Pole ciest v poradí dopytov, cesta je null ak neexistuje.
+     */
+    public int[][] paths(int[] sources, int[] targets) {
+        int[][] result = new int[sources.length][];
+        this.run(sources, targets, result, null);
+        return result;
+    }
+
+    /**
+     * Vypočíta dĺžky najkratších ciest (počet priechodov) pre všetky dvojice (sources[i], targets[i]).
+     *
+     * @param sources Začiatočné bloky dopytov.
+     * @param targets Cieľové bloky dopytov.
+     * @return Pole vzdialeností v poradí dopytov, -1 ak cesta neexistuje.
+     */
+    public int[] distances(int[] sources, int[] targets) {
+        int[] result = new int[sources.length];
+        this.run(sources, targets, null, result);
+        return result;
+    }
+
+    /**
+     * Zoskupí dopyty podľa začiatku a spracuje skupiny paralelne.
+     */
+    private void run(int[] sources, int[] targets, int[][] paths, int[] distances) {
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("Počet začiatkov a cieľov sa líši");
+        }
+        int cellCount = this.grid.getCellCount();
+        int queryCount = sources.length;
+
+        // Kľúč dopytu: začiatok vo vyšších bitoch, poradie dopytu v nižších
+        long[] queries = new long[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            if (sources[i] < 0 || sources[i] >= cellCount || targets[i] < 0 || targets[i] >= cellCount) {
+                throw new IllegalArgumentException("Dopyt " + i + " obsahuje blok mimo bludiska");
+            }
+            queries[i] = ((long)sources[i] << 32) | i;
+        }
+        Arrays.parallelSort(queries);
+
+        // Začiatky skupín dopytov s rovnakým začiatočným blokom
+        int[] groupStart = new int[queryCount + 1];
+        int groupCount = 0;
+        for (int i = 0; i < queryCount; i++) {
+            if (i == 0 || (queries[i] >>> 32) != (queries[i - 1] >>> 32)) {
+                groupStart[groupCount++] = i;
+            }
+        }
+        groupStart[groupCount] = queryCount;
+
+        // Z indexu stromu sa odpovedá bez hľadania, zásoba stavov je potrebná len pre BFS
+        ConcurrentLinkedQueue<SearchState> states = this.treeIndex == null ? new ConcurrentLinkedQueue<>() : null;
+        this.pool.invoke(new GroupTask(this, queries, groupStart, 0, groupCount, targets, paths, distances, states));
+    }
+
+    /**
+     * Odpovie na jednu skupinu dopytov so spoločným začiatkom queries[from..to).
+     * Stav hľadania je null, ak sa odpovedá z indexu stromu.
+     */
+    private void solveGroup(SearchState state, long[] queries, int from, int to, int[] targets, int[][] paths, int[] distances) {
+        int source = (int)(queries[from] >>> 32);
+
+        if (this.treeIndex != null) {
+            for (int i = from; i < to; i++) {
+                int query = (int)queries[i];
+                if (paths != null) {
+                    paths[query] = this.treeIndex.path(source, targets[query]);
+                } else {
+                    distances[query] = this.treeIndex.distance(source, targets[query]);
+                }
+            }
+            return;
+        }
+
+        state.begin();
+        int[] queue = state.getQueue();
+        int[] neighbourBuffer = state.getNeighbours();
+
+        state.reach(source, 0, source);
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        // Dopyty skupiny pred týmto indexom majú cieľ už dosiahnutý
+        int reached = from;
+
+        while (head < tail) {
+            while (reached < to && state.isReached(targets[(int)queries[reached]])) {
+                reached++;
+            }
+            if (reached == to) {
+                break;
+            }
+
+            int current = queue[head++];
+            int distance = state.getDistance(current) + 1;
+            int count = this.grid.neighbours(current, neighbourBuffer);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbourBuffer[i];
+                if (!state.isReached(neighbour)) {
+                    state.reach(neighbour, distance, current);
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+
+        for (int i = from; i < to; i++) {
+            int query = (int)queries[i];
+            int target = targets[query];
+            if (paths == null) {
+                distances[query] = state.isReached(target) ? state.getDistance(target) : -1;
+            } else {
+                paths[query] = state.path(source, target);
+            }
+        }
+    }
+
+    /**
+     * Úloha pre ForkJoinPool, ktorá rekurzívne delí rozsah skupín dopytov na polovice.
+     */
+    private static class GroupTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MazeBatchQuery batch;
+        private final long[] queries;
+        private final int[] groupStart;
+        private final int from;
+        private final int to;
+        private final int[] targets;
+        private final int[][] paths;
+        private final int[] distances;
+        // Zásoba stavov hľadania dávky, null ak sa odpovedá z indexu stromu
+        private final ConcurrentLinkedQueue<SearchState> states;
+
+        GroupTask(MazeBatchQuery batch, long[] queries, int[] groupStart, int from, int to, int[] targets, int[][] paths, int[] distances,
+                  ConcurrentLinkedQueue<SearchState> states) {
+            this.batch = batch;
+            this.queries = queries;
+            this.groupStart = groupStart;
+            this.from = from;
+            this.to = to;
+            this.targets = targets;
+            this.paths = paths;
+            this.distances = distances;
+            this.states = states;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                SearchState state = this.borrowState();
+                try {
+                    for (int group = this.from; group < this.to; group++) {
+                        this.batch.solveGroup(state, this.queries, this.groupStart[group], this.groupStart[group + 1], this.targets, this.paths, this.distances);
+                    }
+                } finally {
+                    if (state != null) {
+                        this.states.offer(state);
+                    }
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new GroupTask(this.batch, this.queries, this.groupStart, this.from, middle, this.targets, this.paths, this.distances, this.states),
+                      new GroupTask(this.batch, this.queries, this.groupStart, middle, this.to, this.targets, this.paths, this.distances, this.states));
+        }
+
+        /**
+         * Požičia si stav hľadania zo zásoby dávky, ak je prázdna, vytvorí nový stav len pre BFS.
+         */
+        private SearchState borrowState() {
+            if (this.states == null) {
+                return null;
+            }
+            SearchState state = this.states.poll();
+            return state != null ? state : new SearchState(this.batch.grid.getCellCount(), false);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Trieda MazeFileReader číta bludisko zapísané triedou MazeFileWriter
+ * a odovzdáva ho príjemcovi riadok po riadku, takže celé bludisko nemusí byť v pamäti.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class MazeFileReader {
+    private DataInputStream input;
+    private int rows;
+    private int columns;
+
+    /**
+     * Konštruktor prečíta a overí hlavičku súboru.
+     *
+     * @param input Vstupný prúd.
+     * @throws IOException Ak čítanie zlyhá alebo prúd nie je bludisko.
+     */
+    public MazeFileReader(InputStream input) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        if (this.input.readInt() != MazeFileWriter.MAGIC) {
+            throw new IOException("Neznámy formát súboru bludiska");
+        }
+        this.rows = this.input.readInt();
+        this.columns = this.input.readInt();
+        if (this.rows <= 0 || this.columns <= 0) {
+            throw new IOException("Neplatné rozmery bludiska: " + this.rows + "x" + this.columns);
+        }
+    }
+
+    /**
+     * Prečíta všetky riadky a odovzdá ich príjemcovi.
+     *
+     * @param sink Príjemca riadkov.
+     * @throws IOException Ak čítanie zlyhá.
+     */
+    public void readRows(MazeRowSink sink) throws IOException {
+        byte[] rowBuffer = new byte[(this.columns + 7) >>> 3];
+        long[] rightPassages = new long[(this.columns + 63) >>> 6];
+        long[] downPassages = new long[(this.columns + 63) >>> 6];
+        for (int row = 0; row < this.rows; row++) {
+            this.readBits(rowBuffer, rightPassages);
+            this.readBits(rowBuffer, downPassages);
+            sink.rowFinished(row, rightPassages, downPassages);
+        }
+    }
+
+    /**
+     * Prečíta celé bludisko do novej mriežky.
+     *
+     * @return Mriežka s načítaným bludiskom.
+     * @throws IOException Ak čítanie zlyhá.
+     */
+    public MazeGrid readGrid() throws IOException {
+        MazeGrid grid = new MazeGrid(this.rows, this.columns);
+        this.readRows(new GridRowSink(grid, null));
+        return grid;
+    }
+
+    /**
+     * Vracia počet riadkov bludiska zo hlavičky.
+     *
+     * @return Počet riadkov.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Vracia počet stĺpcov bludiska zo hlavičky.
+     *
+     * @return Počet stĺpcov.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Prečíta bajty jednej bitovej množiny riadku.
+     */
+    private void readBits(byte[] rowBuffer, long[] bits) throws IOException {
+        this.input.readFully(rowBuffer);
+        Arrays.fill(bits, 0L);
+        for (int i = 0; i < rowBuffer.length; i++) {
+            bits[i >>> 3] |= (rowBuffer[i] & 0xFFL) << ((i & 7) << 3);
+        }
+    }
+}
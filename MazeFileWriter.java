@@ -0,0 +1,67 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Trieda MazeFileWriter zapisuje riadky bludiska priebežne do binárneho prúdu,
+ * bez toho, aby celé bludisko držala v pamäti.
+ * Formát: hlavička (int MAGIC, int riadky, int stĺpce) a pre každý riadok
+ * ceil(stĺpce / 8) bajtov priechodov doprava a rovnako veľa bajtov priechodov dole.
+ * Bit c riadku je v bajte c / 8 na pozícii c % 8.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class MazeFileWriter implements MazeRowSink, Closeable {
+    // Identifikácia formátu súboru ("LAB1")
+    public static final int MAGIC = 0x4C414231;
+
+    private DataOutputStream output;
+    private int columns;
+    private byte[] rowBuffer;
+
+    /**
+     * Konštruktor zapíše hlavičku súboru.
+     *
+     * @param output Výstupný prúd.
+     * @param rows Počet riadkov bludiska.
+     * @param columns Počet stĺpcov bludiska.
+     * @throws IOException Ak zápis hlavičky zlyhá.
+     */
+    public MazeFileWriter(OutputStream output, int rows, int columns) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        this.columns = columns;
+        this.rowBuffer = new byte[(columns + 7) >>> 3];
+        this.output.writeInt(MAGIC);
+        this.output.writeInt(rows);
+        this.output.writeInt(columns);
+    }
+
+    @Override
+    public void rowFinished(int row, long[] rightPassages, long[] downPassages) {
+        try {
+            this.writeBits(rightPassages);
+            this.writeBits(downPassages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.output.close();
+    }
+
+    /**
+     * Zapíše bitovú množinu riadku po bajtoch.
+     */
+    private void writeBits(long[] bits) throws IOException {
+        for (int i = 0; i < this.rowBuffer.length; i++) {
+            this.rowBuffer[i] = (byte)(bits[i >>> 3] >>> ((i & 7) << 3));
+        }
+        this.output.write(this.rowBuffer);
+    }
+}
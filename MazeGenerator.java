@@ -0,0 +1,21 @@
+/**
+ * Rozhranie MazeGenerator predstavuje algoritmus na generovanie bludiska.
+ * Generátor prerazí priechody v mriežke tak, aby vzniklo dokonalé bludisko
+ * (medzi každými dvoma blokmi vedie práve jedna cesta). Rovnaké semienko
+ * vždy vytvorí rovnaké bludisko.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public interface MazeGenerator {
+
+    /**
+     * Vygeneruje bludisko v mriežke, ktorá má na začiatku všetky hranice uzavreté.
+     *
+     * @param grid Mriežka bludiska.
+     * @param startCell Index bloku, z ktorého generovanie začína (ak na tom algoritmu záleží).
+     * @param seed 64-bitové semienko generátora náhodných čísel.
+     * @param listener Pozorovateľ priebehu generovania, alebo null.
+     */
+    void generate(MazeGrid grid, int startCell, long seed, MazeListener listener);
+}
@@ -0,0 +1,332 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trieda MazeGrid predstavuje kompaktnú mriežku bludiska.
+ * Bloky sú určené len indexom (riadok * počet stĺpcov + stĺpec) a pre každý blok sa
+ * ukladajú iba 2 bity v poli long: otvorený priechod doprava a otvorený priechod dole.
+ * Horná a ľavá hranica bloku sa odvodí zo susedného bloku, okraje mriežky sú vždy uzavreté.
+ * Priechody môže naraz otvárať viac vlákien cez openPassageConcurrent.
+ * Pri prehrávaní záznamu dozadu sa priechody aj uzatvárajú (closePassage).
+ * Nemennú kópiu pre súčasné čítanie z viacerých vlákien vytvorí snapshot.
+ * Priechody sú neorientované: passageMask vracia pre každý blok 4-bitovú masku
+ * otvorených smerov, takže hľadať cestu sa dá medzi ľubovoľnými dvoma blokmi.
+ * Počítadlo zmien (getModificationCount) umožní údajom odvodeným z mriežky zistiť,
+ * že mriežka sa od ich vytvorenia zmenila.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.7
+ */
+public class MazeGrid {
+    // Bity masky priechodov bloku (passageMask)
+    public static final int PASSAGE_UP = 1;
+    public static final int PASSAGE_LEFT = 2;
+    public static final int PASSAGE_DOWN = 4;
+    public static final int PASSAGE_RIGHT = 8;
+
+    // Bit pre otvorený priechod doprava
+    private static final int RIGHT_PASSAGE = 1;
+    // Bit pre otvorený priechod dole
+    private static final int DOWN_PASSAGE = 2;
+    // Atomický prístup k prvkom poľa priechodov
+    private static final VarHandle PASSAGES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int rows;
+    private final int columns;
+
+    // 2 bity na blok, 32 blokov v jednom long
+    private final long[] passages;
+
+    // Posun indexu bloku pre jednotlivé bity masky priechodov (hore, vľavo, dole, vpravo)
+    private final int[] passageDelta;
+    // true pre nemennú kópiu mriežky (snapshot)
+    private final boolean immutable;
+    // Počet zmien priechodov, zvýši sa až po zápise zmeny
+    private final AtomicLong modifications;
+
+    /**
+     * Konštruktor vytvorí mriežku, v ktorej majú všetky bloky všetky hranice.
+     *
+     * @param rows Počet riadkov.
+     * @param columns Počet stĺpcov.
+     */
+    public MazeGrid(int rows, int columns) {
+        if (rows <= 0 || columns <= 0 || (long)rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Neplatné rozmery bludiska: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.passages = new long[(int)(((long)rows * columns + 31) >>> 5)];
+        this.passageDelta = new int[] {-columns, -1, columns, 1};
+        this.immutable = false;
+        this.modifications = new AtomicLong();
+    }
+
+    private MazeGrid(MazeGrid source) {
+        this.rows = source.rows;
+        this.columns = source.columns;
+        this.passages = source.passages.clone();
+        this.passageDelta = source.passageDelta;
+        this.immutable = true;
+        this.modifications = new AtomicLong(source.getModificationCount());
+    }
+
+    /**
+     * Vytvorí nemennú kópiu mriežky v aktuálnom stave. Kópiu môže naraz čítať
+     * ľubovoľný počet vlákien, zmeny pôvodnej mriežky sa jej netýkajú
+     * a jej metódy na zmenu priechodov vyhodia UnsupportedOperationException.
+     *
+     * @return Nemenná kópia mriežky.
+     */
+    public MazeGrid snapshot() {
+        return this.immutable ? this : new MazeGrid(this);
+    }
+
+    /**
+     * Vracia true pre nemennú kópiu mriežky.
+     *
+     * @return true, ak sa priechody mriežky nedajú meniť.
+     */
+    public boolean isImmutable() {
+        return this.immutable;
+    }
+
+    /**
+     * Vracia počet doterajších zmien priechodov. Kto si počet prečíta pred čítaním
+     * mriežky, pozná podľa iného počtu neskôr, že sa mriežka medzitým zmenila.
+     *
+     * @return Počet zmien priechodov.
+     */
+    public long getModificationCount() {
+        return this.modifications.get();
+    }
+
+    /**
+     * Vracia počet riadkov mriežky.
+     *
+     * @return Počet riadkov.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Vracia počet stĺpcov mriežky.
+     *
+     * @return Počet stĺpcov.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Vracia počet blokov mriežky.
+     *
+     * @return Počet blokov.
+     */
+    public int getCellCount() {
+        return this.rows * this.columns;
+    }
+
+    /**
+     * Prevedie riadok a stĺpec na index bloku.
+     *
+     * @param row Riadok bloku.
+     * @param column Stĺpec bloku.
+     * @return Index bloku.
+     */
+    public int cellIndex(int row, int column) {
+        return row * this.columns + column;
+    }
+
+    /**
+     * Vracia riadok bloku s daným indexom.
+     *
+     * @param cell Index bloku.
+     * @return Riadok bloku.
+     */
+    public int rowOf(int cell) {
+        return cell / this.columns;
+    }
+
+    /**
+     * Vracia stĺpec bloku s daným indexom.
+     *
+     * @param cell Index bloku.
+     * @return Stĺpec bloku.
+     */
+    public int columnOf(int cell) {
+        return cell % this.columns;
+    }
+
+    /**
+     * Vracia true, ak má blok hornú hranicu.
+     *
+     * @param cell Index bloku.
+     * @return true ak má blok hornú hranicu, inak false.
+     */
+    public boolean hasUpBorder(int cell) {
+        return cell < this.columns || (this.bits(cell - this.columns) & DOWN_PASSAGE) == 0;
+    }
+
+    /**
+     * Vracia true, ak má blok dolnú hranicu.
+     *
+     * @param cell Index bloku.
+     * @return true ak má blok dolnú hranicu, inak false.
+     */
+    public boolean hasDownBorder(int cell) {
+        return (this.bits(cell) & DOWN_PASSAGE) == 0;
+    }
+
+    /**
+     * Vracia true, ak má blok ľavú hranicu.
+     *
+     * @param cell Index bloku.
+     * @return true ak má blok ľavú hranicu, inak false.
+     */
+    public boolean hasLeftBorder(int cell) {
+        return cell % this.columns == 0 || (this.bits(cell - 1) & RIGHT_PASSAGE) == 0;
+    }
+
+    /**
+     * Vracia true, ak má blok pravú hranicu.
+     *
+     * @param cell Index bloku.
+     * @return true ak má blok pravú hranicu, inak false.
+     */
+    public boolean hasRightBorder(int cell) {
+        return (this.bits(cell) & RIGHT_PASSAGE) == 0;
+    }
+
+    /**
+     * Vracia masku otvorených priechodov bloku zloženú z bitov PASSAGE_UP,
+     * PASSAGE_LEFT, PASSAGE_DOWN a PASSAGE_RIGHT.
+     *
+     * @param cell Index bloku.
+     * @return 4-bitová maska otvorených priechodov.
+     */
+    public int passageMask(int cell) {
+        int own = this.bits(cell);
+        int mask = ((own & DOWN_PASSAGE) != 0 ? PASSAGE_DOWN : 0) | ((own & RIGHT_PASSAGE) != 0 ? PASSAGE_RIGHT : 0);
+        if (cell >= this.columns && (this.bits(cell - this.columns) & DOWN_PASSAGE) != 0) {
+            mask |= PASSAGE_UP;
+        }
+        if (cell % this.columns != 0 && (this.bits(cell - 1) & RIGHT_PASSAGE) != 0) {
+            mask |= PASSAGE_LEFT;
+        }
+        return mask;
+    }
+
+    /**
+     * Zapíše do poľa bloky, do ktorých vedie z daného bloku otvorený priechod,
+     * v poradí hore, vľavo, dole, vpravo.
+     *
+     * @param cell Index bloku.
+     * @param out Pole aspoň so 4 prvkami pre výsledok.
+     * @return Počet susedov zapísaných do poľa.
+     */
+    public int neighbours(int cell, int[] out) {
+        int mask = this.passageMask(cell);
+        int count = 0;
+        while (mask != 0) {
+            out[count++] = cell + this.passageDelta[Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Otvorí priechod medzi dvoma susednými blokmi.
+     *
+     * @param cell Index prvého bloku.
+     * @param neighbour Index susedného bloku.
+     */
+    public void openPassage(int cell, int neighbour) {
+        this.openPassage(cell, neighbour, false);
+    }
+
+    /**
+     * Otvorí priechod medzi dvoma susednými blokmi atomicky. Viac vlákien môže naraz
+     * otvárať priechody aj v blokoch, ktoré zdieľajú jeden prvok poľa long.
+     *
+     * @param cell Index prvého bloku.
+     * @param neighbour Index susedného bloku.
+     */
+    public void openPassageConcurrent(int cell, int neighbour) {
+        this.openPassage(cell, neighbour, true);
+    }
+
+    /**
+     * Uzavrie priechod medzi dvoma susednými blokmi.
+     *
+     * @param cell Index prvého bloku.
+     * @param neighbour Index susedného bloku.
+     */
+    public void closePassage(int cell, int neighbour) {
+        this.checkMutable();
+        long bit = this.passageBit(cell, neighbour);
+        this.passages[(int)(bit >>> 6)] &= ~(1L << bit);
+        this.modifications.incrementAndGet();
+    }
+
+    /**
+     * Uzavrie všetky priechody, každý blok bude mať všetky hranice.
+     */
+    public void clear() {
+        this.checkMutable();
+        Arrays.fill(this.passages, 0L);
+        this.modifications.incrementAndGet();
+    }
+
+    /**
+     * Nastaví bit priechodu v bloku, ktorému priechod patrí.
+     */
+    private void openPassage(int cell, int neighbour, boolean atomic) {
+        this.checkMutable();
+        long bit = this.passageBit(cell, neighbour);
+        long mask = 1L << bit;
+        if (atomic) {
+            PASSAGES.getAndBitwiseOr(this.passages, (int)(bit >>> 6), mask);
+        } else {
+            this.passages[(int)(bit >>> 6)] |= mask;
+        }
+        this.modifications.incrementAndGet();
+    }
+
+    /**
+     * Vracia poradie bitu priechodu v poli priechodov. Priechod patrí bloku vľavo
+     * alebo hore, bit doprava je (blok * 2), bit dole (blok * 2 + 1). Poradie je long,
+     * pretože pri viac ako 2^30 blokoch sa do int nezmestí.
+     */
+    private long passageBit(int cell, int neighbour) {
+        if (neighbour == cell + this.columns) {
+            return ((long)cell << 1) + 1;
+        } else if (neighbour == cell - this.columns) {
+            return ((long)neighbour << 1) + 1;
+        } else if (neighbour == cell + 1 && neighbour % this.columns != 0) {
+            return (long)cell << 1;
+        } else if (neighbour == cell - 1 && cell % this.columns != 0) {
+            return (long)neighbour << 1;
+        }
+        throw new IllegalArgumentException("Bloky " + cell + " a " + neighbour + " nie sú susedné");
+    }
+
+    /**
+     * Overí, že mriežka nie je nemenná kópia.
+     */
+    private void checkMutable() {
+        if (this.immutable) {
+            throw new UnsupportedOperationException("Nemenná kópia mriežky sa nedá meniť");
+        }
+    }
+
+    /**
+     * Vracia 2 bity priechodov daného bloku.
+     */
+    private int bits(int cell) {
+        return (int)(this.passages[cell >>> 5] >>> ((cell & 31) << 1)) & 3;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Rozhranie MazeListener predstavuje pozorovateľa zmien v bludisku.
+ * Bludisko samotné nič nevykresľuje, len oznamuje zmeny farieb a priechodov
+ * pripojeným pozorovateľom (napr. vykresľovaču na plátne). Bloky sú určené
+ * indexom v mriežke MazeGrid.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.6
+ */
+public interface MazeListener {
+
+    /**
+     * Oznámi zmenu farby bloku.
+     *
+     * @param cell Index bloku.
+     * @param farba Nová farba bloku.
+     */
+    void cellColorChanged(int cell, Farby farba);
+
+    /**
+     * Oznámi otvorenie priechodu medzi dvoma susednými blokmi.
+     *
+     * @param cell Index prvého bloku.
+     * @param neighbour Index susedného bloku.
+     */
+    void passageOpened(int cell, int neighbour);
+
+    /**
+     * Oznámi uzavretie priechodu medzi dvoma susednými blokmi (napr. pri prehrávaní
+     * záznamu dozadu). Vykresľovače čítajú hranice z mriežky, preto stačí
+     * prekresliť priechod rovnako ako pri jeho otvorení.
+     *
+     * @param cell Index prvého bloku.
+     * @param neighbour Index susedného bloku.
+     */
+    default void passageClosed(int cell, int neighbour) {
+        this.passageOpened(cell, neighbour);
+    }
+
+    /**
+     * Oznámi, že bludisko bolo vrátené do pôvodného stavu
+     * (všetky hranice uzavreté, všetky bloky čierne).
+     */
+    void mazeCleared();
+
+    /**
+     * Oznámi, že všetky bloky majú opäť čiernu farbu. Priechody sa nemenia.
+     */
+    void colorsReset();
+
+    /**
+     * Oznámi hromadnú zmenu priechodov (napr. po obnovení celého bludiska zo záznamu)
+     * namiesto samostatnej udalosti pre každý priechod. Pozorovateľ si hranice všetkých
+     * blokov prečíta znova z mriežky. Farby blokov sa nemenia.
+     */
+    void wallsChanged();
+
+    /**
+     * Oznámi koniec jedného kroku generovania alebo hľadania cesty.
+     * Pozorovateľ tu môže algoritmus pozdržať kvôli vizualizácii.
+     */
+    default void stepFinished() {
+    }
+}
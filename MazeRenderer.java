@@ -0,0 +1,112 @@
+/**
+ * Trieda MazeRenderer vykresľuje bludisko na plátno pomocou objektov Stvorec.
+ * Je to voliteľný pozorovateľ bludiska, bludisko bez neho funguje aj bez okna.
+ * Predvolene sa používa rýchlejší GridRenderer, tento vykresľovač ostáva ako alternatíva.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.3
+ */
+public class MazeRenderer implements MazeListener {
+    // Mriežka vykresľovaného bludiska
+    private MazeGrid grid;
+    // Vizuálne bloky bludiska, indexované ako bloky mriežky
+    private Stvorec[] stvorce;
+
+    /**
+     * Konštruktor vypočíta rozmery blokov a vykreslí aktuálny stav bludiska.
+     *
+     * @param maze Bludisko, ktoré sa má vykresľovať.
+     * @param sizeOfPlatnoX Šírka plátna.
+     * @param sizeOfPlatnoY Výška plátna.
+     */
+    public MazeRenderer(Maze maze, int sizeOfPlatnoX, int sizeOfPlatnoY) {
+        this.grid = maze.getGrid();
+        int rows = this.grid.getRows();
+        int columns = this.grid.getColumns();
+        int lineWidth = 3;
+        int cellSize;
+
+        /*
+         * Výpočet veľkosti kocky na základe veľkosti plátna, počtu riadkov (Rows) a stĺpcov (Columns).
+         * Použije sa menšia hodnota (šírka alebo výška plátna), aby sa zabezpečilo, že bludisko neprekročí
+         * hranice plátna, ak je veľkosť kocky nesprávne vypočítaná.
+         */
+        if ((sizeOfPlatnoX / rows) <= (sizeOfPlatnoY / columns)) {
+            cellSize = (int)((sizeOfPlatnoX / rows) * 0.8);
+        } else {
+            cellSize = (int)((sizeOfPlatnoY / columns) * 0.8);
+        }
+
+        // Soft lock pre hrúbku hrany kocky
+        if (rows >= 200) {
+            lineWidth = 1;
+        } else if (rows >= 100) {
+            lineWidth = 2;
+        }
+
+        // Výpočet štartovacej pozície pre bludisko, aby bolo vycentrované vzhľadom na veľkosť plátna.
+        int startingX = (sizeOfPlatnoX / 2) - ((columns * cellSize) / 2);
+        int startingY = (sizeOfPlatnoY / 2) - ((rows * cellSize) / 2);
+
+        this.stvorce = new Stvorec[this.grid.getCellCount()];
+        for (int cell = 0; cell < this.stvorce.length; cell++) {
+            this.stvorce[cell] = new Stvorec(
+                startingX + (this.grid.columnOf(cell) * cellSize),
+                startingY + (this.grid.rowOf(cell) * cellSize),
+                cellSize,
+                lineWidth,
+                this.grid.hasUpBorder(cell),
+                this.grid.hasDownBorder(cell),
+                this.grid.hasLeftBorder(cell),
+                this.grid.hasRightBorder(cell),
+                sizeOfPlatnoX,
+                sizeOfPlatnoY
+            );
+        }
+    }
+
+    @Override
+    public void cellColorChanged(int cell, Farby farba) {
+        this.stvorce[cell].zmenFarbuVnutra(farba);
+    }
+
+    @Override
+    public void passageOpened(int cell, int neighbour) {
+        this.updateBorders(cell);
+        this.updateBorders(neighbour);
+    }
+
+    @Override
+    public void mazeCleared() {
+        for (Stvorec stvorec : this.stvorce) {
+            stvorec.nastavHranicu(true, true, true, true);
+            stvorec.zmenFarbuVnutra(Farby.CIERNA);
+        }
+    }
+
+    @Override
+    public void colorsReset() {
+        for (Stvorec stvorec : this.stvorce) {
+            stvorec.zmenFarbuVnutra(Farby.CIERNA);
+        }
+    }
+
+    @Override
+    public void wallsChanged() {
+        for (int cell = 0; cell < this.stvorce.length; cell++) {
+            this.updateBorders(cell);
+        }
+    }
+
+    /**
+     * Prekreslí hranice bloku podľa aktuálneho stavu mriežky.
+     */
+    private void updateBorders(int cell) {
+        this.stvorce[cell].nastavHranicu(
+            this.grid.hasUpBorder(cell),
+            this.grid.hasDownBorder(cell),
+            this.grid.hasLeftBorder(cell),
+            this.grid.hasRightBorder(cell)
+        );
+    }
+}
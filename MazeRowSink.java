@@ -0,0 +1,20 @@
+/**
+ * Rozhranie MazeRowSink prijíma hotové riadky bludiska jeden po druhom,
+ * napr. pri generovaní Ellerovým algoritmom alebo pri čítaní zo súboru.
+ * Priechody riadku sú bitové množiny podľa stĺpcov (bit c v poli long[c / 64]).
+ * Polia sa po návrate z metódy znovu použijú, príjemca si ich nesmie uchovať.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public interface MazeRowSink {
+
+    /**
+     * Prijme hotový riadok bludiska.
+     *
+     * @param row Index riadku.
+     * @param rightPassages Bit c je nastavený, ak vedie priechod z bloku c doprava.
+     * @param downPassages Bit c je nastavený, ak vedie priechod z bloku c do ďalšieho riadku.
+     */
+    void rowFinished(int row, long[] rightPassages, long[] downPassages);
+}
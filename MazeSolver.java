@@ -0,0 +1,253 @@
+/**
+ * Trieda MazeSolver obsahuje algoritmy na hľadanie cesty v mriežke bludiska.
+ * Algoritmy pracujú len s indexmi blokov a primitívnymi poľami, takže bežia aj bez plátna.
+ * Ak je zadaný pozorovateľ, oznamuje mu priebeh hľadania (farby blokov a koniec kroku).
+ * Vzdialenosti a pôvody sú v stave hľadania (SearchState), ktorý sa medzi hľadaniami
+ * nemaže, takže opakované hľadanie nezačína prechodom cez celú mriežku.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.4
+ */
+public class MazeSolver {
+    private MazeGrid grid;
+    // Pozorovateľ priebehu hľadania (môže byť null)
+    private MazeListener listener;
+
+    // Počet spracovaných blokov pri poslednom hľadaní
+    private int expandedNodes;
+
+    // Pomocné pole pre susedov bloku
+    private int[] neighbourBuffer;
+    // Polia hľadania, nové hľadanie ich len označí novou epochou
+    private SearchState state;
+
+    /**
+     * Konštruktor vytvorí riešiteľa pre danú mriežku.
+     *
+     * @param grid Mriežka bludiska.
+     * @param listener Pozorovateľ priebehu hľadania, alebo null.
+     */
+    public MazeSolver(MazeGrid grid, MazeListener listener) {
+        this(grid, listener, new SearchState(grid.getCellCount()));
+    }
+
+    /**
+     * Konštruktor vytvorí riešiteľa, ktorý použije existujúci stav hľadania.
+     * Stav nesmie naraz používať iný riešiteľ v inom vlákne.
+     *
+     * @param grid Mriežka bludiska.
+     * @param listener Pozorovateľ priebehu hľadania, alebo null.
+     * @param state Stav hľadania pre mriežku s rovnakým počtom blokov.
+     */
+    public MazeSolver(MazeGrid grid, MazeListener listener, SearchState state) {
+        this.grid = grid;
+        this.listener = listener;
+        this.neighbourBuffer = state.getNeighbours();
+        this.state = state;
+    }
+
+    /**
+     * Dijkstrov algoritmus s indexovanou binárnou haldou a uzavretými blokmi v stave hľadania.
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Cesta od začiatku po cieľ ako pole indexov, alebo null ak cesta neexistuje.
+     */
+    public int[] dijkstra(int start, int end) {
+        SearchState state = this.state;
+        state.begin();
+        IndexedMinHeap unvisited = state.getHeap();
+        this.expandedNodes = 0;
+
+        // Nastavenie ceny začiatočného bloku, začiatočný blok je svojím vlastným pôvodom
+        state.reach(start, 0, start);
+        unvisited.insertOrDecrease(start, 0);
+        this.setColor(start, Farby.CERVENA);
+
+        while (!unvisited.isEmpty()) {
+            // Blok s najmenšou cenou z haldy
+            int currentCell = unvisited.pollMin();
+            state.close(currentCell);
+            this.expandedNodes++;
+            this.setColor(currentCell, Farby.MODRA);
+
+            if (currentCell == end) {
+                break;
+            }
+
+            // Aktualizácia susedov
+            int newCost = state.getDistance(currentCell) + 1;
+            int count = this.grid.neighbours(currentCell, this.neighbourBuffer);
+            for (int i = 0; i < count; i++) {
+                int neighbor = this.neighbourBuffer[i];
+                if (!state.isClosed(neighbor)) {
+                    if (newCost < state.getDistance(neighbor)) {
+                        state.reach(neighbor, newCost, currentCell);
+                        unvisited.insertOrDecrease(neighbor, newCost);
+                    }
+                    this.setColor(neighbor, Farby.ZELENA);
+                }
+            }
+
+            this.stepFinished();
+        }
+
+        return state.path(start, end);
+    }
+
+    /**
+     * Algoritmus A* s otvorenou množinou v indexovanej halde podľa f = g + h.
+     * Pri rovnakom f má prednosť blok s väčším g (bližšie k cieľu), takže sa
+     * medzi rovnocennými cestami nerozširuje do šírky. Príslušnosť do otvorenej
+     * aj uzavretej množiny sa overuje v konštantnom čase.
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Cesta od začiatku po cieľ ako pole indexov, alebo null ak cesta neexistuje.
+     */
+    public int[] aStar(int start, int end) {
+        SearchState state = this.state;
+        state.begin();
+        // openSet obsahuje bloky na skúmanie, uzavreté bloky sú označené v stave hľadania
+        IndexedMinHeap openSet = state.getHeap();
+        this.expandedNodes = 0;
+
+        int goalRow = this.grid.rowOf(end);
+        int goalColumn = this.grid.columnOf(end);
+
+        state.reach(start, 0, start);
+        openSet.insertOrDecrease(start, this.aStarKey(0, this.heuristic(start, goalRow, goalColumn)));
+        this.setColor(start, Farby.CERVENA);
+
+        while (!openSet.isEmpty()) {
+            // Blok s najnižším f = g + h
+            int current = openSet.pollMin();
+
+            // Ak sme dosiahli cieľový blok
+            if (current == end) {
+                return state.path(start, end);
+            }
+
+            // Presun current z openSet do closedSet
+            state.close(current);
+            this.expandedNodes++;
+            this.setColor(current, Farby.MODRA);
+
+            int tentativeG = state.getDistance(current) + 1;
+            int count = this.grid.neighbours(current, this.neighbourBuffer);
+            for (int i = 0; i < count; i++) {
+                int neighbor = this.neighbourBuffer[i];
+                if (state.isClosed(neighbor)) {
+                    // Tento sused už bol spracovaný
+                    continue;
+                }
+
+                if (tentativeG < state.getDistance(neighbor)) {
+                    // Nový alebo lacnejší prístup k susedovi
+                    state.reach(neighbor, tentativeG, current);
+                    openSet.insertOrDecrease(neighbor, this.aStarKey(tentativeG, this.heuristic(neighbor, goalRow, goalColumn)));
+                    this.setColor(neighbor, Farby.ZELENA);
+                }
+            }
+
+            this.stepFinished();
+        }
+
+        // Žiadna cesta nenájdená
+        return null;
+    }
+
+    /**
+     * Breadth-First Search nad frontou typu int[] a poľom pôvodov zo stavu hľadania.
+     * Počas hľadania sa nealokuje nič na jednotlivé bloky, preto slúži ako
+     * rýchly referenčný riešiteľ aj pre veľmi veľké bludiská.
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Cesta od začiatku po cieľ ako pole indexov, alebo null ak cesta neexistuje.
+     */
+    public int[] bfs(int start, int end) {
+        SearchState state = this.state;
+        state.begin();
+        // Každý blok vstúpi do fronty najviac raz, preto stačí pole s kapacitou počtu blokov
+        int[] queue = state.getQueue();
+        int head = 0;
+        int tail = 0;
+        this.expandedNodes = 0;
+
+        // Začiatočný blok je svojím vlastným pôvodom
+        state.reach(start, 0, start);
+        queue[tail++] = start;
+        this.setColor(start, Farby.CERVENA);
+
+        // Kým máme prvky vo fronte, spracovávame ich postupne
+        while (head < tail) {
+            int current = queue[head++];
+
+            // Ak je to cieľový blok, zostavíme cestu
+            if (current == end) {
+                return state.path(start, end);
+            }
+            this.expandedNodes++;
+
+            int distance = state.getDistance(current) + 1;
+            int count = this.grid.neighbours(current, this.neighbourBuffer);
+            for (int i = 0; i < count; i++) {
+                int neighbor = this.neighbourBuffer[i];
+                if (!state.isReached(neighbor)) {
+                    state.reach(neighbor, distance, current);
+                    queue[tail++] = neighbor;
+                    this.setColor(neighbor, Farby.ZELENA);
+                }
+            }
+
+            // Samotný current považujeme za spracovaný
+            this.setColor(current, Farby.MODRA);
+            this.stepFinished();
+        }
+        return null;
+    }
+
+    /**
+     * Vracia počet blokov spracovaných pri poslednom hľadaní.
+     *
+     * @return Počet spracovaných blokov.
+     */
+    public int getExpandedNodes() {
+        return this.expandedNodes;
+    }
+
+    /**
+     * Heuristická funkcia pre algoritmus A*: Manhattanská vzdialenosť k cieľu.
+     * Nikdy nenadhodnotí skutočnú dĺžku cesty, takže A* nájde najkratšiu cestu.
+     */
+    private int heuristic(int cell, int goalRow, int goalColumn) {
+        return Math.abs(goalRow - this.grid.rowOf(cell)) + Math.abs(goalColumn - this.grid.columnOf(cell));
+    }
+
+    /**
+     * Zloží kľúč haldy pre A*: vyššie bity tvorí f = g + h, nižšie bity
+     * uprednostňujú väčšie g pri rovnakom f.
+     */
+    private long aStarKey(int g, int h) {
+        return ((long)(g + h) << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    /**
+     * Oznámi pozorovateľovi novú farbu bloku.
+     */
+    private void setColor(int cell, Farby farba) {
+        if (this.listener != null) {
+            this.listener.cellColorChanged(cell, farba);
+        }
+    }
+
+    /**
+     * Oznámi pozorovateľovi koniec jedného kroku algoritmu.
+     */
+    private void stepFinished() {
+        if (this.listener != null) {
+            this.listener.stepFinished();
+        }
+    }
+}
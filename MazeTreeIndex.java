@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+/**
+ * Trieda MazeTreeIndex je predpočítaný index dokonalého bludiska.
+ * Dokonalé bludisko je kostra mriežky, takže medzi dvoma blokmi vedie práve jedna cesta.
+ * Index si pamätá strom zakorenený v bloku 0: rodiča a hĺbku každého bloku
+ * a skokový ukazovateľ (skew-binary jump pointer), vďaka ktorému sa najbližší
+ * spoločný predok (LCA) nájde v čase O(log n) pri pamäti O(n).
+ *
+ * Vzdialenosť dvoch blokov je hĺbka(a) + hĺbka(b) - 2 * hĺbka(LCA) a cesta
+ * sa zostaví v čase O(dĺžka cesty), bez prehľadávania celej mriežky.
+ * Index sa po zmene mriežky musí vytvoriť znova.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class MazeTreeIndex {
+    private final int[] parent;
+    private final int[] depth;
+    // Skok k predkovi, vzdialenosti skokov tvoria skew-binary postupnosť
+    private final int[] jump;
+
+    private MazeTreeIndex(int[] parent, int[] depth, int[] jump) {
+        this.parent = parent;
+        this.depth = depth;
+        this.jump = jump;
+    }
+
+    /**
+     * Vytvorí index pre mriežku. Mriežka musí byť dokonalé bludisko, teda všetky
+     * bloky sú spojené a priechodov je o jeden menej ako blokov.
+     *
+     * @param grid Mriežka bludiska.
+     * @return Index bludiska, alebo null ak mriežka nie je dokonalé bludisko.
+     */
+    public static MazeTreeIndex build(MazeGrid grid) {
+        int cellCount = grid.getCellCount();
+        int[] parent = new int[cellCount];
+        int[] depth = new int[cellCount];
+        int[] jump = new int[cellCount];
+        // Fronta BFS, každý blok do nej vstúpi najviac raz
+        int[] queue = new int[cellCount];
+        int[] neighbourBuffer = new int[4];
+        Arrays.fill(parent, -1);
+
+        parent[0] = 0;
+        jump[0] = 0;
+        queue[0] = 0;
+        int head = 0;
+        int tail = 1;
+        long passages = 0;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int count = grid.neighbours(cell, neighbourBuffer);
+            passages += count;
+            for (int i = 0; i < count; i++) {
+                int child = neighbourBuffer[i];
+                if (parent[child] != -1) {
+                    continue;
+                }
+                parent[child] = cell;
+                depth[child] = depth[cell] + 1;
+                // Rodič je spracovaný skôr ako dieťa, jeho skoky sú už známe
+                int up = jump[cell];
+                if (depth[cell] - depth[up] == depth[up] - depth[jump[up]]) {
+                    jump[child] = jump[up];
+                } else {
+                    jump[child] = cell;
+                }
+                queue[tail++] = child;
+            }
+        }
+
+        // Každý priechod bol započítaný z oboch strán
+        if (tail != cellCount || passages / 2 != cellCount - 1) {
+            return null;
+        }
+        return new MazeTreeIndex(parent, depth, jump);
+    }
+
+    /**
+     * Nájde najbližšieho spoločného predka dvoch blokov v čase O(log n).
+     *
+     * @param a Index prvého bloku.
+     * @param b Index druhého bloku.
+     * @return Index najbližšieho spoločného predka.
+     */
+    public int lowestCommonAncestor(int a, int b) {
+        if (this.depth[a] < this.depth[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        a = this.ancestorAtDepth(a, this.depth[b]);
+
+        // Skoky závisia len od hĺbky, takže a aj b skáču rovnako ďaleko
+        while (a != b) {
+            if (this.jump[a] != this.jump[b]) {
+                a = this.jump[a];
+                b = this.jump[b];
+            } else {
+                a = this.parent[a];
+                b = this.parent[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Vracia dĺžku cesty (počet priechodov) medzi dvoma blokmi v čase O(log n).
+     *
+     * @param a Index prvého bloku.
+     * @param b Index druhého bloku.
+     * @return Počet priechodov na ceste medzi blokmi.
+     */
+    public int distance(int a, int b) {
+        return this.depth[a] + this.depth[b] - 2 * this.depth[this.lowestCommonAncestor(a, b)];
+    }
+
+    /**
+     * Zostaví cestu medzi dvoma blokmi v čase O(dĺžka cesty).
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Cesta od začiatku po cieľ ako pole indexov.
+     */
+    public int[] path(int start, int end) {
+        int ancestor = this.lowestCommonAncestor(start, end);
+        int upLength = this.depth[start] - this.depth[ancestor];
+        int[] path = new int[upLength + this.depth[end] - this.depth[ancestor] + 1];
+
+        // Od začiatku hore k spoločnému predkovi
+        int cell = start;
+        for (int i = 0; i <= upLength; i++) {
+            path[i] = cell;
+            cell = this.parent[cell];
+        }
+        // Od cieľa hore k spoločnému predkovi, zapisované odzadu
+        cell = end;
+        for (int i = path.length - 1; i > upLength; i--) {
+            path[i] = cell;
+            cell = this.parent[cell];
+        }
+        return path;
+    }
+
+    /**
+     * Vracia rodiča bloku v strome zakorenenom v bloku 0 (koreň je svojím vlastným rodičom).
+     *
+     * @param cell Index bloku.
+     * @return Index rodiča.
+     */
+    public int getParent(int cell) {
+        return this.parent[cell];
+    }
+
+    /**
+     * Vracia hĺbku bloku, teda vzdialenosť od bloku 0.
+     *
+     * @param cell Index bloku.
+     * @return Hĺbka bloku.
+     */
+    public int getDepth(int cell) {
+        return this.depth[cell];
+    }
+
+    /**
+     * Nájde predka bloku v danej hĺbke pomocou skokov.
+     */
+    private int ancestorAtDepth(int cell, int targetDepth) {
+        while (this.depth[cell] > targetDepth) {
+            if (this.depth[this.jump[cell]] >= targetDepth) {
+                cell = this.jump[cell];
+            } else {
+                cell = this.parent[cell];
+            }
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,320 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Trieda ParallelTiledGenerator generuje bludisko paralelne po dlaždiciach.
+ * Mriežka sa rozdelí na obdĺžnikové dlaždice, v každej sa nezávisle vygeneruje
+ * bludisko algoritmom DFS s návratom a dlaždice sa spracujú paralelne vo ForkJoinPool.
+ * Potom sa dlaždice zošijú náhodným Kruskalovým algoritmom nad susednými dlaždicami
+ * (union-find nad dlaždicami): medzi dvoma spájanými dlaždicami sa prerazí práve
+ * jeden priechod, takže výsledok je dokonalé bludisko.
+ *
+ * Každá dlaždica má vlastný prúd náhodných čísel odvodený zo semienka a indexu
+ * dlaždice, preto výsledok pre dané semienko nezávisí od počtu vlákien.
+ *
+ * Paralelne sa generuje len bez pozorovateľa (alebo len s CancellationListener), teda
+ * v bludisku bez pripojeného vykresľovača (napr. pri generovaní obrovského bludiska do súboru).
+ * S pozorovateľom, napríklad v hernom okne, sa dlaždice generujú postupne v jednom vlákne,
+ * aby sa dali vizualizovať a nahrať krok po kroku; bludisko pre rovnaké semienko je
+ * v oboch prípadoch rovnaké. Paralelné generovanie sa zruší prerušením volajúceho vlákna,
+ * úlohy skončia pred ďalšou dlaždicou.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.3
+ */
+public class ParallelTiledGenerator implements MazeGenerator {
+    // Predvolená veľkosť strany dlaždice v blokoch
+    private static final int DEFAULT_TILE_SIZE = 64;
+    // Najmenší počet dlaždíc, ktoré úloha ešte nedelí ďalej
+    private static final int TILES_PER_TASK = 4;
+
+    private final int tileSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Konštruktor vytvorí generátor s predvolenou veľkosťou dlaždice a spoločným ForkJoinPool.
+     */
+    public ParallelTiledGenerator() {
+        this(DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Konštruktor vytvorí generátor s danou veľkosťou dlaždice.
+     *
+     * @param tileSize Dĺžka strany dlaždice v blokoch.
+     * @param pool ForkJoinPool, v ktorom sa dlaždice generujú.
+     */
+    public ParallelTiledGenerator(int tileSize, ForkJoinPool pool) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Neplatná veľkosť dlaždice: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Vygeneruje bludisko. Ak je zadaný pozorovateľ (iný ako CancellationListener),
+     * dlaždice sa generujú postupne v jednom vlákne, aby mu udalosti prichádzali v poradí;
+     * bludisko je rovnaké.
+     */
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        int tileRows = (grid.getRows() + this.tileSize - 1) / this.tileSize;
+        int tileColumns = (grid.getColumns() + this.tileSize - 1) / this.tileSize;
+        int tileCount = tileRows * tileColumns;
+
+        if (listener == null || listener instanceof CancellationListener) {
+            this.generateTiles(grid, tileColumns, seed, tileCount);
+        } else {
+            for (int tile = 0; tile < tileCount; tile++) {
+                this.generateTile(grid, tile, tileColumns, seed, listener);
+            }
+        }
+
+        this.stitchTiles(grid, tileRows, tileColumns, seed, listener);
+    }
+
+    @Override
+    public String toString() {
+        return "Dlaždice (paralelne len bez okna)";
+    }
+
+    /**
+     * Vygeneruje všetky dlaždice paralelne. Volajúce vlákno na ne čaká s možnosťou
+     * prerušenia (ForkJoinPool.invoke prerušenie počas čakania nevidí), pri prerušení
+     * úlohám oznámi zrušenie a počká na ich skončenie, aby už do mriežky nezapisovali.
+     * Ak volajúce vlákno úlohy počas čakania samo vykonáva, prerušenie zistia úlohy.
+     */
+    private void generateTiles(MazeGrid grid, int tileColumns, long seed, int tileCount) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        TileTask task = new TileTask(this, grid, tileColumns, seed, 0, tileCount, cancelled);
+        this.pool.execute(task);
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            task.quietlyJoin();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error)e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (cancelled.get()) {
+            throw new CancellationException("Generovanie bolo zrušené");
+        }
+    }
+
+    /**
+     * Vygeneruje bludisko vnútri jednej dlaždice algoritmom DFS s návratom.
+     * Bloky sa v dlaždici indexujú lokálne, do mriežky sa zapisuje atomicky,
+     * lebo susedné dlaždice môžu zdieľať prvok poľa priechodov.
+     */
+    private void generateTile(MazeGrid grid, int tile, int tileColumns, long seed, MazeListener listener) {
+        int columns = grid.getColumns();
+        int firstRow = (tile / tileColumns) * this.tileSize;
+        int firstColumn = (tile % tileColumns) * this.tileSize;
+        int height = Math.min(this.tileSize, grid.getRows() - firstRow);
+        int width = Math.min(this.tileSize, columns - firstColumn);
+        int tileCells = height * width;
+
+        SplittableRandom random = new SplittableRandom(mix(seed, tile));
+        long[] visitedCells = new long[(tileCells + 63) >>> 6];
+        int[] stack = new int[tileCells];
+        int[] validMoves = new int[4];
+        int stackSize = 0;
+
+        int startLocal = random.nextInt(tileCells);
+        stack[stackSize++] = startLocal;
+        visitedCells[startLocal >>> 6] |= 1L << startLocal;
+
+        while (stackSize > 0) {
+            int current = stack[stackSize - 1];
+            int row = current / width;
+            int column = current - row * width;
+
+            int count = 0;
+            if (row > 0 && !isSet(visitedCells, current - width)) {
+                validMoves[count++] = current - width;
+            }
+            if (column > 0 && !isSet(visitedCells, current - 1)) {
+                validMoves[count++] = current - 1;
+            }
+            if (row < height - 1 && !isSet(visitedCells, current + width)) {
+                validMoves[count++] = current + width;
+            }
+            if (column < width - 1 && !isSet(visitedCells, current + 1)) {
+                validMoves[count++] = current + 1;
+            }
+
+            if (count == 0) {
+                stackSize--;
+                continue;
+            }
+
+            int next = validMoves[random.nextInt(count)];
+            visitedCells[next >>> 6] |= 1L << next;
+            stack[stackSize++] = next;
+
+            int cell = (firstRow + row) * columns + firstColumn + column;
+            int nextRow = next / width;
+            int nextCell = (firstRow + nextRow) * columns + firstColumn + next - nextRow * width;
+            grid.openPassageConcurrent(cell, nextCell);
+            if (listener != null) {
+                listener.passageOpened(cell, nextCell);
+                listener.cellColorChanged(cell, Farby.MODRA);
+                listener.cellColorChanged(nextCell, Farby.MODRA);
+                listener.stepFinished();
+            }
+        }
+    }
+
+    /**
+     * Zošije dlaždice do jedného bludiska. Hrany medzi susednými dlaždicami sa náhodne
+     * zamiešajú a hrana sa použije, ak spája dve doteraz nespojené skupiny dlaždíc.
+     * Na použitej hrane sa prerazí jeden priechod na náhodnom mieste spoločnej hranice.
+     */
+    private void stitchTiles(MazeGrid grid, int tileRows, int tileColumns, long seed, MazeListener listener) {
+        int tileCount = tileRows * tileColumns;
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        SplittableRandom random = new SplittableRandom(mix(seed, -1));
+
+        // Hrana je zakódovaná ako dlaždica * 2 + smer (0 = doprava, 1 = dole)
+        int edgeCount = (tileRows * (tileColumns - 1)) + ((tileRows - 1) * tileColumns);
+        int[] edges = new int[edgeCount];
+        int index = 0;
+        for (int tile = 0; tile < tileCount; tile++) {
+            if (tile % tileColumns < tileColumns - 1) {
+                edges[index++] = tile << 1;
+            }
+            if (tile < tileCount - tileColumns) {
+                edges[index++] = (tile << 1) | 1;
+            }
+        }
+        for (int i = edgeCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = edges[i];
+            edges[i] = edges[j];
+            edges[j] = swap;
+        }
+
+        int[] parent = new int[tileCount];
+        for (int tile = 0; tile < tileCount; tile++) {
+            parent[tile] = tile;
+        }
+
+        for (int i = 0; i < edgeCount; i++) {
+            int tile = edges[i] >>> 1;
+            boolean down = (edges[i] & 1) == 1;
+            int rootA = find(parent, tile);
+            int rootB = find(parent, down ? tile + tileColumns : tile + 1);
+            if (rootA == rootB) {
+                continue;
+            }
+            parent[rootB] = rootA;
+
+            int firstRow = (tile / tileColumns) * this.tileSize;
+            int firstColumn = (tile % tileColumns) * this.tileSize;
+            int cell;
+            int neighbour;
+            if (down) {
+                // Náhodný stĺpec na spoločnej vodorovnej hranici
+                int width = Math.min(this.tileSize, columns - firstColumn);
+                cell = (firstRow + this.tileSize - 1) * columns + firstColumn + random.nextInt(width);
+                neighbour = cell + columns;
+            } else {
+                // Náhodný riadok na spoločnej zvislej hranici
+                int height = Math.min(this.tileSize, rows - firstRow);
+                cell = (firstRow + random.nextInt(height)) * columns + firstColumn + this.tileSize - 1;
+                neighbour = cell + 1;
+            }
+            grid.openPassage(cell, neighbour);
+            if (listener != null) {
+                listener.passageOpened(cell, neighbour);
+                listener.stepFinished();
+            }
+        }
+    }
+
+    /**
+     * Odvodí semienko dlaždice zo semienka bludiska a indexu dlaždice (SplitMix64).
+     */
+    private static long mix(long seed, int tile) {
+        long z = seed + (tile + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Nájde koreň skupiny dlaždíc a skráti cestu ku koreňu (path halving).
+     */
+    private static int find(int[] parent, int tile) {
+        while (parent[tile] != tile) {
+            parent[tile] = parent[parent[tile]];
+            tile = parent[tile];
+        }
+        return tile;
+    }
+
+    /**
+     * Vracia true, ak je v bitovej množine nastavený daný blok.
+     */
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Úloha pre ForkJoinPool, ktorá rekurzívne delí rozsah dlaždíc na polovice.
+     */
+    private static class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ParallelTiledGenerator generator;
+        private final MazeGrid grid;
+        private final int tileColumns;
+        private final long seed;
+        private final int from;
+        private final int to;
+        // Nastaví sa pri zrušení generovania
+        private final AtomicBoolean cancelled;
+
+        TileTask(ParallelTiledGenerator generator, MazeGrid grid, int tileColumns, long seed, int from, int to, AtomicBoolean cancelled) {
+            this.generator = generator;
+            this.grid = grid;
+            this.tileColumns = tileColumns;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= TILES_PER_TASK) {
+                for (int tile = this.from; tile < this.to; tile++) {
+                    if (this.cancelled.get()) {
+                        return;
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        this.cancelled.set(true);
+                        return;
+                    }
+                    this.generator.generateTile(this.grid, tile, this.tileColumns, this.seed, null);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new TileTask(this.generator, this.grid, this.tileColumns, this.seed, this.from, middle, this.cancelled),
+                      new TileTask(this.generator, this.grid, this.tileColumns, this.seed, middle, this.to, this.cancelled));
+        }
+    }
+}
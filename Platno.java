@@ -11,11 +11,17 @@ import java.awt.Rectangle;
 import java.awt.BasicStroke;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelListener;
 import java.awt.event.ActionListener;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Platno {
     private static Map<String, Platno> platna = new HashMap<>();
@@ -35,9 +41,14 @@ public class Platno {
     private Color pozadie;
     private Image canvasImage;
     private Timer timer;
-    private List<Object> objekty;
-    private HashMap<Object, PopisTvaru> tvary;
-    private List<Object> zmeneneObjekty;
+    // Tvary v poradí kreslenia, naposledy zmenený tvar je na konci
+    private LinkedHashMap<Object, PopisTvaru> tvary;
+    // Objekty zmenené od posledného snímku, každý najviac raz
+    private Set<Object> zmeneneObjekty;
+    // Oblasť, ktorá sa musí nakresliť znova (vymazané tvary, zmenené obrázky), alebo null
+    private Rectangle neplatnaOblast;
+    // Pozorovatelia volaní na začiatku každého snímku, pred vykreslením zmien
+    private List<ActionListener> snimkovePozorovatele;
 
     private Platno(String titulok, int sirka, int vyska, Color pozadie) {
         this.frame = new JFrame();
@@ -45,48 +56,67 @@ public class Platno {
         this.frame.setContentPane(this.canvas);
         this.frame.setTitle(titulok);
         this.canvas.setPreferredSize(new Dimension(sirka, vyska));
-        this.timer = new javax.swing.Timer(25, null);
-        this.timer.start();
         this.pozadie = pozadie;
         this.frame.pack();
-        this.objekty = new ArrayList<Object>();
-        this.tvary = new HashMap<Object, PopisTvaru>();
-        this.zmeneneObjekty = new ArrayList<>();
+        this.tvary = new LinkedHashMap<Object, PopisTvaru>();
+        this.zmeneneObjekty = new LinkedHashSet<>();
+        this.snimkovePozorovatele = new CopyOnWriteArrayList<>();
+        this.timer = new javax.swing.Timer(25, null);
+        // Zmeny sa na obrazovku prenesú najviac raz za snímok
+        this.timer.addActionListener(e -> {
+            for (ActionListener pozorovatel : this.snimkovePozorovatele) {
+                pozorovatel.actionPerformed(e);
+            }
+            this.redraw();
+        });
+        this.timer.start();
     }
 
     public void setVisible(boolean visible) {
-        if (this.graphic == null) {
-            Dimension size = this.canvas.getSize();
-            this.canvasImage = this.canvas.createImage(size.width, size.height);
-            this.graphic = (Graphics2D)this.canvasImage.getGraphics();
-            this.graphic.setColor(this.pozadie);
-            this.graphic.fillRect(0, 0, size.width, size.height);
-            this.graphic.setColor(Color.black);
-        }
+        this.getGraphics2D();
         this.frame.setVisible(visible);
     }
 
-    public void fill(Object objekt, Color farba, Shape tvar) {
-        this.objekty.remove(objekt); 
-        this.objekty.add(objekt); 
+    public synchronized void fill(Object objekt, Color farba, Shape tvar) {
+        this.tvary.remove(objekt);
         this.tvary.put(objekt, new PopisTvaru(tvar, farba, null, true));
-        this.zmeneneObjekty.add(objekt); 
-        this.redraw();
+        this.zmeneneObjekty.remove(objekt);
+        this.zmeneneObjekty.add(objekt);
     }
 
-    public void draw(Object objekt, Color farba, Shape tvar, BasicStroke stroke) {
-        this.objekty.remove(objekt); 
-        this.objekty.add(objekt); 
+    public synchronized void draw(Object objekt, Color farba, Shape tvar, BasicStroke stroke) {
+        this.tvary.remove(objekt);
         this.tvary.put(objekt, new PopisTvaru(tvar, farba, stroke, false));
-        this.zmeneneObjekty.add(objekt); 
-        this.redraw();
+        this.zmeneneObjekty.remove(objekt);
+        this.zmeneneObjekty.add(objekt);
     }
 
-    public void erase(Object objekt) {
-        this.objekty.remove(objekt); 
+    public synchronized void drawImage(Object objekt, Image obrazok, int x, int y) {
         this.tvary.remove(objekt);
-        this.zmeneneObjekty.add(objekt); 
-        this.redraw();
+        this.tvary.put(objekt, new PopisTvaru(obrazok, x, y));
+        this.zmeneneObjekty.remove(objekt);
+        this.zmeneneObjekty.add(objekt);
+    }
+
+    public synchronized void erase(Object objekt) {
+        PopisTvaru popis = this.tvary.remove(objekt);
+        this.zmeneneObjekty.remove(objekt);
+        if (popis != null) {
+            this.repaintArea(popis.oblast.x, popis.oblast.y, popis.oblast.width, popis.oblast.height);
+        }
+    }
+
+    /**
+     * Označí oblasť plátna, ktorá sa má pri najbližšom snímku nakresliť znova,
+     * napr. po zmene časti obrázka vloženého cez drawImage.
+     */
+    public synchronized void repaintArea(int x, int y, int sirka, int vyska) {
+        if (this.neplatnaOblast == null) {
+            this.neplatnaOblast = new Rectangle(x, y, sirka, vyska);
+        } else {
+            this.neplatnaOblast.add(x, y);
+            this.neplatnaOblast.add(x + sirka, y + vyska);
+        }
     }
 
     public void wait(int milisekundy) {
@@ -97,17 +127,49 @@ public class Platno {
         }
     }
 
+    /**
+     * Vykreslí zmeny od posledného snímku a prekreslí len ich spoločnú oblasť.
+     * Volá ho časovač vo vlákne Swingu, tvary sa medzitým môžu meniť z iných vlákien.
+     */
     private void redraw() {
-        for (Object tvar : this.zmeneneObjekty) {
-            PopisTvaru popis = this.tvary.get(tvar);
-            if (popis != null) {
+        List<PopisTvaru> vOblasti = new ArrayList<>();
+        List<PopisTvaru> zmenene = new ArrayList<>();
+        Rectangle neplatna;
+        synchronized (this) {
+            if (this.graphic == null || (this.zmeneneObjekty.isEmpty() && this.neplatnaOblast == null)) {
+                return;
+            }
+            neplatna = this.neplatnaOblast;
+            if (neplatna != null) {
+                // Tvary v neplatnej oblasti sa nakreslia znova v pôvodnom poradí
+                for (Map.Entry<Object, PopisTvaru> zaznam : this.tvary.entrySet()) {
+                    if (!this.zmeneneObjekty.contains(zaznam.getKey()) && zaznam.getValue().oblast.intersects(neplatna)) {
+                        vOblasti.add(zaznam.getValue());
+                    }
+                }
+            }
+            for (Object objekt : this.zmeneneObjekty) {
+                zmenene.add(this.tvary.get(objekt));
+            }
+            this.zmeneneObjekty.clear();
+            this.neplatnaOblast = null;
+        }
+
+        Rectangle zmenenaOblast = neplatna;
+        if (neplatna != null) {
+            // Kreslí sa len do neplatnej oblasti, zvyšok plátna ostáva
+            this.graphic.setClip(neplatna);
+            this.eraseArea(neplatna);
+            for (PopisTvaru popis : vOblasti) {
                 popis.draw(this.graphic);
-            } else {
-                this.eraseArea(this.getBoundingBox(tvar));
             }
+            this.graphic.setClip(null);
         }
-        this.zmeneneObjekty.clear();
-        this.canvas.repaint();
+        for (PopisTvaru popis : zmenene) {
+            popis.draw(this.graphic);
+            zmenenaOblast = zmenenaOblast == null ? popis.oblast : zmenenaOblast.union(popis.oblast);
+        }
+        this.canvas.repaint(zmenenaOblast);
     }
 
     private void eraseArea(Rectangle area) {
@@ -117,14 +179,6 @@ public class Platno {
         this.graphic.setColor(original);
     }
 
-    private Rectangle getBoundingBox(Object objekt) {
-        PopisTvaru popis = this.tvary.get(objekt);
-        if (popis != null) {
-            return popis.tvar.getBounds();
-        }
-        return new Rectangle();
-    }
-
     public void addKeyListener(KeyListener listener) {
         this.frame.addKeyListener(listener);
     }
@@ -133,10 +187,26 @@ public class Platno {
         this.canvas.addMouseListener(listener);
     }
 
+    public void addMouseMotionListener(MouseMotionListener listener) {
+        this.canvas.addMouseMotionListener(listener);
+    }
+
+    public void addMouseWheelListener(MouseWheelListener listener) {
+        this.canvas.addMouseWheelListener(listener);
+    }
+
     public void addTimerListener(ActionListener listener) {
         this.timer.addActionListener(listener);
     }
 
+    /**
+     * Pridá pozorovateľa, ktorý sa volá vo vlákne Swingu na začiatku každého snímku.
+     * Zmeny plátna, ktoré v ňom urobí, sa vykreslia ešte v tom istom snímku.
+     */
+    public void addFrameListener(ActionListener listener) {
+        this.snimkovePozorovatele.add(listener);
+    }
+
     private class CanvasPane extends JPanel {
         public void paint(Graphics graphic) {
             graphic.drawImage(Platno.this.canvasImage, 0, 0, null);
@@ -148,6 +218,9 @@ public class Platno {
         private Color farba;
         private BasicStroke stroke;
         private boolean isFill;
+        private Image obrazok;
+        // Oblasť, do ktorej tvar kreslí (vrátane hrúbky čiary)
+        private Rectangle oblast;
 
         // Odstránený 'public' prístupový modifikátor
         PopisTvaru(Shape tvar, Color farba, BasicStroke stroke, boolean isFill) {
@@ -155,9 +228,24 @@ public class Platno {
             this.farba = farba;
             this.stroke = stroke;
             this.isFill = isFill;
+            this.oblast = tvar.getBounds();
+            if (!isFill) {
+                int okraj = (int)Math.ceil(stroke.getLineWidth() / 2) + 1;
+                this.oblast.grow(okraj, okraj);
+            }
+        }
+
+        PopisTvaru(Image obrazok, int x, int y) {
+            this.obrazok = obrazok;
+            this.oblast = new Rectangle(x, y, obrazok.getWidth(null), obrazok.getHeight(null));
+            this.tvar = this.oblast;
         }
 
         public void draw(Graphics2D graphic) {
+            if (this.obrazok != null) {
+                graphic.drawImage(this.obrazok, this.oblast.x, this.oblast.y, null);
+                return;
+            }
             graphic.setColor(this.farba);
             if (this.isFill) {
                 graphic.fill(this.tvar);
@@ -168,7 +256,7 @@ public class Platno {
         }
     }
 
-    public Graphics2D getGraphics2D() {
+    public synchronized Graphics2D getGraphics2D() {
         if (this.graphic == null) {
             Dimension size = this.canvas.getSize();
             this.canvasImage = this.canvas.createImage(size.width, size.height);
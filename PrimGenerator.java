@@ -0,0 +1,119 @@
+import java.util.SplittableRandom;
+
+/**
+ * Trieda PrimGenerator generuje bludisko náhodným Primovým algoritmom.
+ * Bludisko rastie od začiatočného bloku: v každom kroku sa vyberie náhodný blok
+ * z hranice (nenavštívené bloky susediace s bludiskom) a pripojí sa k náhodnému
+ * susedovi, ktorý už do bludiska patrí. Vytvára krátke chodby a veľa slepých uličiek.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class PrimGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cellCount = grid.getCellCount();
+
+        long[] inMaze = new long[(cellCount + 63) >>> 6];
+        long[] inFrontier = new long[(cellCount + 63) >>> 6];
+        int[] frontier = new int[cellCount];
+        int[] candidates = new int[4];
+        int frontierSize = 0;
+
+        set(inMaze, startCell);
+        if (listener != null) {
+            listener.cellColorChanged(startCell, Farby.MODRA);
+        }
+        frontierSize = this.addFrontier(grid, startCell, inMaze, inFrontier, frontier, frontierSize, candidates, listener);
+
+        while (frontierSize > 0) {
+            // Náhodný blok z hranice (odstránenie výmenou s posledným)
+            int index = random.nextInt(frontierSize);
+            int cell = frontier[index];
+            frontier[index] = frontier[--frontierSize];
+
+            // Náhodný sused, ktorý už patrí do bludiska
+            int count = this.neighbours(grid, cell, inMaze, true, candidates);
+            int neighbour = candidates[random.nextInt(count)];
+
+            grid.openPassage(cell, neighbour);
+            set(inMaze, cell);
+            if (listener != null) {
+                listener.passageOpened(cell, neighbour);
+                listener.cellColorChanged(cell, Farby.MODRA);
+            }
+            frontierSize = this.addFrontier(grid, cell, inMaze, inFrontier, frontier, frontierSize, candidates, listener);
+
+            if (listener != null) {
+                listener.stepFinished();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Prim";
+    }
+
+    /**
+     * Pridá na hranicu nenavštívených susedov bloku, ktorí na nej ešte nie sú.
+     *
+     * @return Nová veľkosť hranice.
+     */
+    private int addFrontier(MazeGrid grid, int cell, long[] inMaze, long[] inFrontier, int[] frontier, int frontierSize, int[] candidates, MazeListener listener) {
+        int count = this.neighbours(grid, cell, inMaze, false, candidates);
+        for (int i = 0; i < count; i++) {
+            int neighbour = candidates[i];
+            if (!isSet(inFrontier, neighbour)) {
+                set(inFrontier, neighbour);
+                frontier[frontierSize++] = neighbour;
+                if (listener != null) {
+                    listener.cellColorChanged(neighbour, Farby.ZELENA);
+                }
+            }
+        }
+        return frontierSize;
+    }
+
+    /**
+     * Zapíše do poľa susedné bloky v mriežke, ktoré do bludiska patria (inMazeWanted = true)
+     * alebo nepatria (inMazeWanted = false).
+     *
+     * @return Počet zapísaných susedov.
+     */
+    private int neighbours(MazeGrid grid, int cell, long[] inMaze, boolean inMazeWanted, int[] out) {
+        int columns = grid.getColumns();
+        int row = grid.rowOf(cell);
+        int column = cell - row * columns;
+        int count = 0;
+        if (row > 0 && isSet(inMaze, cell - columns) == inMazeWanted) {
+            out[count++] = cell - columns;
+        }
+        if (column > 0 && isSet(inMaze, cell - 1) == inMazeWanted) {
+            out[count++] = cell - 1;
+        }
+        if (row < grid.getRows() - 1 && isSet(inMaze, cell + columns) == inMazeWanted) {
+            out[count++] = cell + columns;
+        }
+        if (column < columns - 1 && isSet(inMaze, cell + 1) == inMazeWanted) {
+            out[count++] = cell + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Vracia true, ak je v bitovej množine nastavený daný blok.
+     */
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Nastaví daný blok v bitovej množine.
+     */
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+}
@@ -0,0 +1,235 @@
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.GridLayout;
+import java.awt.Rectangle;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+/**
+ * Trieda RaceView spustí naraz viac algoritmov hľadania cesty na nemennej kópii
+ * bludiska, každý vo vlastnom vlákne, a zobrazí ich vedľa seba v jednom okne.
+ * Každý algoritmus má vlastný stav hľadania a vlastný obrázok s frontou udalostí
+ * (GridRenderer), počítadlo spracovaných blokov a čas behu.
+ *
+ * Algoritmy sa nepozastavujú, bežia naplno a súčasne, takže časy ukazujú
+ * priepustnosť pri skutočnej súbežnej záťaži. Vizualizácia ich nebrzdí,
+ * pri zaplnenej fronte sa obrázok prekreslí celý.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class RaceView {
+    // Algoritmy v závode
+    private static final String[] ALGORITMY = {"Dijkstra", "A*", "BFS"};
+    // Perióda obnovy obrázkov a počítadiel
+    private static final int OBNOVA_MILISEKUNDY = 25;
+
+    // Nemenná kópia bludiska, ktorú algoritmy naraz čítajú
+    private final MazeGrid grid;
+    private final Lane[] lanes;
+    private final ExecutorService executor;
+    private final Timer timer;
+    private final JFrame frame;
+
+    /**
+     * Konštruktor otvorí okno závodu a spustí algoritmy. Volá sa vo vlákne Swingu.
+     *
+     * @param grid Mriežka bludiska, závod beží na jej nemennej kópii.
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @param laneSize Šírka a výška obrázka jedného algoritmu v pixeloch.
+     */
+    public RaceView(MazeGrid grid, int start, int end, int laneSize) {
+        this.grid = grid.snapshot();
+        this.lanes = new Lane[ALGORITMY.length];
+
+        JPanel panel = new JPanel(new GridLayout(1, ALGORITMY.length, 5, 0));
+        for (int i = 0; i < ALGORITMY.length; i++) {
+            this.lanes[i] = new Lane(i, this.grid, laneSize);
+            panel.add(this.lanes[i].panel);
+        }
+
+        this.frame = new JFrame("Závod algoritmov");
+        this.frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        this.frame.add(panel);
+        this.frame.pack();
+        this.frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                RaceView.this.stop();
+            }
+        });
+        this.frame.setVisible(true);
+
+        this.timer = new Timer(OBNOVA_MILISEKUNDY, e -> this.refresh());
+        this.timer.start();
+
+        // Každý algoritmus má vlastné vlákno, všetky začnú naraz
+        this.executor = Executors.newFixedThreadPool(this.lanes.length, task -> {
+            Thread thread = new Thread(task, "Labyrint-zavod");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch gate = new CountDownLatch(1);
+        for (Lane lane : this.lanes) {
+            this.executor.execute(() -> lane.run(start, end, gate));
+        }
+        gate.countDown();
+    }
+
+    /**
+     * Zastaví algoritmy, ktoré ešte bežia, a obnovu okna.
+     */
+    public void stop() {
+        this.executor.shutdownNow();
+        this.timer.stop();
+    }
+
+    /**
+     * Prenesie udalosti algoritmov do obrázkov a obnoví počítadlá. Volá sa vo vlákne Swingu.
+     */
+    private void refresh() {
+        for (Lane lane : this.lanes) {
+            lane.refresh();
+        }
+    }
+
+    /**
+     * Jeden algoritmus závodu: riešiteľ s vlastným stavom hľadania, jeho obrázok a počítadlá.
+     * Udalosti riešiteľa preposiela do vlastného vykresľovača.
+     */
+    private static class Lane implements MazeListener {
+        private final int algorithm;
+        private final MazeGrid grid;
+        private final SearchState state;
+        private final GridRenderer renderer;
+        private final Rectangle dirtyArea;
+        private final JLabel popis;
+        private final JPanel obraz;
+        private final JPanel panel;
+
+        // Počítadlá zapisuje len vlákno riešiteľa, číta ich vlákno Swingu
+        private volatile int expanded;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile int pathLength;
+
+        Lane(int algorithm, MazeGrid grid, int size) {
+            this.algorithm = algorithm;
+            this.grid = grid;
+            this.state = new SearchState(grid.getCellCount());
+            this.renderer = new GridRenderer(grid, size, size);
+            this.dirtyArea = new Rectangle();
+            this.pathLength = -1;
+
+            this.obraz = new JPanel() {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    super.paintComponent(g);
+                    g.drawImage(Lane.this.renderer.getImage(), 0, 0, null);
+                }
+            };
+            this.obraz.setPreferredSize(new Dimension(size, size));
+            this.popis = new JLabel(ALGORITMY[algorithm]);
+            this.panel = new JPanel(new BorderLayout());
+            this.panel.add(this.popis, BorderLayout.NORTH);
+            this.panel.add(this.obraz, BorderLayout.CENTER);
+        }
+
+        /**
+         * Počká na štart a nájde cestu. Volá sa vo vlákne riešiteľa.
+         */
+        void run(int start, int end, CountDownLatch gate) {
+            MazeSolver solver = new MazeSolver(this.grid, this, this.state);
+            try {
+                gate.await();
+                this.startNanos = System.nanoTime();
+                int[] path;
+                switch (this.algorithm) {
+                    case 0:
+                        path = solver.dijkstra(start, end);
+                        break;
+                    case 1:
+                        path = solver.aStar(start, end);
+                        break;
+                    default:
+                        path = solver.bfs(start, end);
+                        break;
+                }
+                this.endNanos = System.nanoTime();
+
+                // Nájdená cesta sa zvýrazní nad preskúmanými blokmi
+                if (path != null) {
+                    for (int cell : path) {
+                        this.renderer.cellColorChanged(cell, Farby.ZLTA);
+                    }
+                    this.pathLength = path.length - 1;
+                }
+            } catch (InterruptedException | CancellationException e) {
+                // Okno závodu bolo zatvorené
+            }
+        }
+
+        /**
+         * Prekreslí zmenenú časť obrázka a popis. Volá sa vo vlákne Swingu.
+         */
+        void refresh() {
+            if (this.renderer.drainEvents(this.dirtyArea)) {
+                this.obraz.repaint(this.dirtyArea);
+            }
+            long startTime = this.startNanos;
+            if (startTime == 0) {
+                return;
+            }
+            long endTime = this.endNanos;
+            long millis = ((endTime == 0 ? System.nanoTime() : endTime) - startTime) / 1_000_000;
+            String text = ALGORITMY[this.algorithm] + ": " + this.expanded + " blokov, " + millis + " ms";
+            if (endTime != 0) {
+                text += this.pathLength >= 0 ? ", cesta " + this.pathLength : ", cesta neexistuje";
+            }
+            this.popis.setText(text);
+        }
+
+        @Override
+        public void cellColorChanged(int cell, Farby farba) {
+            this.renderer.cellColorChanged(cell, farba);
+        }
+
+        @Override
+        public void passageOpened(int cell, int neighbour) {
+            this.renderer.passageOpened(cell, neighbour);
+        }
+
+        @Override
+        public void mazeCleared() {
+            this.renderer.mazeCleared();
+        }
+
+        @Override
+        public void colorsReset() {
+            this.renderer.colorsReset();
+        }
+
+        @Override
+        public void wallsChanged() {
+            this.renderer.wallsChanged();
+        }
+
+        @Override
+        public void stepFinished() {
+            this.expanded++;
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Závod bol zastavený");
+            }
+        }
+    }
+}
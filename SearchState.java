@@ -0,0 +1,186 @@
+import java.util.Arrays;
+
+/**
+ * Trieda SearchState obsahuje stav jedného hľadania cesty v primitívnych poliach:
+ * vzdialenosť a pôvod bloku, uzavreté bloky, frontu a haldu.
+ * Každý zápis je označený pečiatkou aktuálnej epochy. Blok patrí do aktuálneho
+ * hľadania, len ak sa jeho pečiatka rovná epoche, takže nové hľadanie len zvýši
+ * epochu a polia sa nemusia mazať.
+ *
+ * Stav nie je zdieľaný medzi vláknami, každé vlákno (riešiteľ) má vlastný,
+ * preto môže nad jedným bludiskom naraz bežať viac hľadaní. Stav len pre BFS
+ * nemá haldu ani pečiatky uzavretia a zaberá menej ako polovicu pamäte.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.2
+ */
+public class SearchState {
+    // Epocha, v ktorej bola nastavená vzdialenosť a pôvod bloku
+    private final int[] reachedStamp;
+    // Epocha, v ktorej bol blok uzavretý, null v stave len pre BFS
+    private final int[] closedStamp;
+    private final int[] distance;
+    private final int[] parent;
+    private final int[] queue;
+    private final int[] neighbours;
+    // Halda pre Dijkstru a A*, null v stave len pre BFS
+    private final IndexedMinHeap heap;
+    private int epoch;
+
+    /**
+     * Konštruktor vytvorí stav pre mriežku s daným počtom blokov.
+     *
+     * @param cellCount Počet blokov mriežky.
+     */
+    public SearchState(int cellCount) {
+        this(cellCount, true);
+    }
+
+    /**
+     * Konštruktor vytvorí stav pre mriežku s daným počtom blokov.
+     *
+     * @param cellCount Počet blokov mriežky.
+     * @param weighted true pre stav s haldou a uzavretými blokmi (Dijkstra, A*),
+     *                 false pre stav len pre BFS.
+     */
+    public SearchState(int cellCount, boolean weighted) {
+        this.reachedStamp = new int[cellCount];
+        this.closedStamp = weighted ? new int[cellCount] : null;
+        this.distance = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.queue = new int[cellCount];
+        this.neighbours = new int[4];
+        this.heap = weighted ? new IndexedMinHeap(cellCount) : null;
+        this.epoch = 0;
+    }
+
+    /**
+     * Začne nové hľadanie. Zvýši epochu a vyprázdni haldu, pri pretečení epochy
+     * sa pečiatky vymažú.
+     */
+    public void begin() {
+        if (++this.epoch == Integer.MAX_VALUE) {
+            Arrays.fill(this.reachedStamp, 0);
+            if (this.closedStamp != null) {
+                Arrays.fill(this.closedStamp, 0);
+            }
+            this.epoch = 1;
+        }
+        if (this.heap != null) {
+            this.heap.clear();
+        }
+    }
+
+    /**
+     * Vracia true, ak hľadanie už dosiahlo blok.
+     *
+     * @param cell Index bloku.
+     * @return true, ak má blok v aktuálnom hľadaní vzdialenosť a pôvod.
+     */
+    public boolean isReached(int cell) {
+        return this.reachedStamp[cell] == this.epoch;
+    }
+
+    /**
+     * Nastaví vzdialenosť a pôvod bloku v aktuálnom hľadaní.
+     *
+     * @param cell Index bloku.
+     * @param cellDistance Vzdialenosť bloku od začiatku.
+     * @param cellParent Pôvod bloku, začiatočný blok je svojím vlastným pôvodom.
+     */
+    public void reach(int cell, int cellDistance, int cellParent) {
+        this.reachedStamp[cell] = this.epoch;
+        this.distance[cell] = cellDistance;
+        this.parent[cell] = cellParent;
+    }
+
+    /**
+     * Vracia vzdialenosť bloku od začiatku.
+     *
+     * @param cell Index bloku.
+     * @return Vzdialenosť, alebo Integer.MAX_VALUE ak blok nebol dosiahnutý.
+     */
+    public int getDistance(int cell) {
+        return this.isReached(cell) ? this.distance[cell] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Vracia pôvod bloku.
+     *
+     * @param cell Index bloku.
+     * @return Index pôvodu, alebo -1 ak blok nebol dosiahnutý.
+     */
+    public int getParent(int cell) {
+        return this.isReached(cell) ? this.parent[cell] : -1;
+    }
+
+    /**
+     * Vracia true, ak je blok v aktuálnom hľadaní uzavretý (spracovaný).
+     *
+     * @param cell Index bloku.
+     * @return true pre uzavretý blok.
+     */
+    public boolean isClosed(int cell) {
+        return this.closedStamp[cell] == this.epoch;
+    }
+
+    /**
+     * Uzavrie blok v aktuálnom hľadaní.
+     *
+     * @param cell Index bloku.
+     */
+    public void close(int cell) {
+        this.closedStamp[cell] = this.epoch;
+    }
+
+    /**
+     * Zostaví cestu od začiatku po cieľ podľa pôvodov blokov.
+     *
+     * @param start Index začiatočného bloku.
+     * @param end Index cieľového bloku.
+     * @return Cesta ako pole indexov, alebo null ak cieľ nebol dosiahnutý.
+     */
+    public int[] path(int start, int end) {
+        if (!this.isReached(end)) {
+            return null;
+        }
+        int length = 1;
+        for (int cell = end; cell != start; cell = this.parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int cell = end;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = this.parent[cell];
+        }
+        return path;
+    }
+
+    /**
+     * Vracia pole pre frontu blokov s kapacitou počtu blokov.
+     *
+     * @return Pole fronty.
+     */
+    public int[] getQueue() {
+        return this.queue;
+    }
+
+    /**
+     * Vracia pomocné pole pre susedov bloku.
+     *
+     * @return Pole so 4 prvkami.
+     */
+    public int[] getNeighbours() {
+        return this.neighbours;
+    }
+
+    /**
+     * Vracia haldu, ktorá je na začiatku hľadania prázdna.
+     *
+     * @return Indexovaná halda blokov, null v stave len pre BFS.
+     */
+    public IndexedMinHeap getHeap() {
+        return this.heap;
+    }
+}
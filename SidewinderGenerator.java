@@ -0,0 +1,60 @@
+import java.util.SplittableRandom;
+
+/**
+ * Trieda SidewinderGenerator generuje bludisko algoritmom Sidewinder.
+ * Bludisko vzniká riadok po riadku: v riadku sa tvoria vodorovné úseky a z každého
+ * úseku sa prerazí jeden priechod nahor. Pracuje len s aktuálnym riadkom, je veľmi
+ * rýchly a vhodný na hromadné generovanie veľkých bludísk. Prvý riadok je vždy
+ * jedna rovná chodba.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class SidewinderGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+
+        for (int row = 0; row < rows; row++) {
+            int rowStart = row * columns;
+            int runStart = rowStart;
+
+            for (int column = 0; column < columns; column++) {
+                int cell = rowStart + column;
+                boolean lastColumn = column == columns - 1;
+
+                if (row > 0 && (lastColumn || random.nextBoolean())) {
+                    // Uzavretie úseku a prerazenie priechodu nahor z náhodného bloku úseku
+                    int chosen = runStart + random.nextInt(cell - runStart + 1);
+                    carve(grid, chosen, chosen - columns, listener);
+                    runStart = cell + 1;
+                } else if (!lastColumn) {
+                    carve(grid, cell, cell + 1, listener);
+                }
+
+                if (listener != null) {
+                    listener.cellColorChanged(cell, Farby.MODRA);
+                    listener.stepFinished();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Sidewinder";
+    }
+
+    /**
+     * Prerazí priechod medzi dvoma blokmi a oznámi to pozorovateľovi.
+     */
+    private static void carve(MazeGrid grid, int cell, int neighbour, MazeListener listener) {
+        grid.openPassage(cell, neighbour);
+        if (listener != null) {
+            listener.passageOpened(cell, neighbour);
+        }
+    }
+}
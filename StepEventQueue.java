@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Trieda StepEventQueue je ohraničená fronta udalostí typu long bez zámkov
+ * pre viac zapisujúcich vlákien a jedno čítajúce vlákno (MPSC).
+ * Každé miesto v kruhovom poli má poradové číslo, podľa ktorého zapisujúce vlákno
+ * pozná voľné miesto a čítajúce vlákno hotovú udalosť (Vyukovova ohraničená fronta).
+ * Pri plnej fronte sa udalosť nezapíše a zapisujúce vlákno nikdy nečaká.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class StepEventQueue {
+    private final long[] events;
+    // Poradové číslo miesta: rovné pozícii = voľné, pozícia + 1 = zapísané
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // Pozícia ďalšieho zápisu, zdieľaná zapisujúcimi vláknami
+    private final AtomicLong tail;
+    // Pozícia ďalšieho čítania, používa ju len čítajúce vlákno
+    private long head;
+
+    /**
+     * Konštruktor vytvorí prázdnu frontu.
+     *
+     * @param capacity Kapacita fronty, zaokrúhli sa nahor na mocninu dvoch.
+     */
+    public StepEventQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Neplatná kapacita fronty: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.events = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.head = 0;
+    }
+
+    /**
+     * Zapíše udalosť do fronty. Môže ho volať ľubovoľné vlákno.
+     *
+     * @param event Udalosť.
+     * @return true, ak sa udalosť zapísala, false ak je fronta plná.
+     */
+    public boolean offer(long event) {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int)position & this.mask;
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.events[index] = event;
+                    // Zverejnenie udalosti pre čítajúce vlákno
+                    this.sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                // Miesto ešte nebolo prečítané, fronta je plná
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Prečíta najviac maxEvents udalostí a odovzdá ich spracovateľovi.
+     * Smie ho volať len jedno čítajúce vlákno.
+     *
+     * @param consumer Spracovateľ udalostí.
+     * @param maxEvents Najväčší počet prečítaných udalostí.
+     * @return Počet prečítaných udalostí.
+     */
+    public int drain(LongConsumer consumer, int maxEvents) {
+        int count = 0;
+        while (count < maxEvents) {
+            int index = (int)this.head & this.mask;
+            if (this.sequences.get(index) != this.head + 1) {
+                break;
+            }
+            long event = this.events[index];
+            // Uvoľnenie miesta pre zápis o jedno kolo neskôr
+            this.sequences.lazySet(index, this.head + this.mask + 1);
+            this.head++;
+            consumer.accept(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Zahodí všetky udalosti, ktoré sú práve vo fronte. Smie ho volať len čítajúce vlákno.
+     *
+     * @return Počet zahodených udalostí.
+     */
+    public int clear() {
+        return this.drain(event -> { }, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Vracia kapacitu fronty.
+     *
+     * @return Kapacita fronty.
+     */
+    public int getCapacity() {
+        return this.events.length;
+    }
+}
@@ -0,0 +1,346 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Trieda StepLog je kompaktný binárny záznam priebehu algoritmu.
+ * Každá udalosť má hlavičku v jednom bajte (druh, pôvodná a nová farba),
+ * rozdiel indexu bloku oproti predchádzajúcej udalosti (zigzag varint)
+ * a rozdiel čísla kroku (varint). Bežná udalosť tak zaberá 3 až 4 bajty.
+ *
+ * Po každých BLOCK_SIZE udalostiach sa uloží kontrolný bod (pozícia v dátach,
+ * posledný blok a krok), od ktorého sa dá záznam dekódovať po blokoch.
+ * Záznam obsahuje aj priechody mriežky na jeho začiatku, takže sa dá prehrať
+ * od začiatku na ľubovoľnej mriežke rovnakých rozmerov.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.2
+ */
+public class StepLog {
+    // Počet udalostí medzi kontrolnými bodmi
+    public static final int BLOCK_SIZE = 4096;
+
+    // Druhy udalostí
+    public static final int KIND_COLOR = 0;
+    public static final int KIND_PASSAGE = 1;
+    public static final int KIND_CLEAR = 2;
+
+    // "STP1" na začiatku súboru
+    private static final int MAGIC = 0x53545031;
+
+    private final int rows;
+    private final int columns;
+    // Priechody na začiatku záznamu, 2 bity na blok (1 = doprava, 2 = dole)
+    private final byte[] initialPassages;
+
+    private byte[] data;
+    private int size;
+    private int eventCount;
+
+    // Stav kodéra po poslednej udalosti
+    private int lastCell;
+    private long lastStep;
+
+    // Kontrolné body na začiatku každého bloku udalostí
+    private int[] checkpointOffsets;
+    private int[] checkpointCells;
+    private long[] checkpointSteps;
+
+    /**
+     * Konštruktor vytvorí prázdny záznam pre mriežku v danom stave.
+     *
+     * @param grid Mriežka, ktorej priechody tvoria začiatočný stav záznamu.
+     */
+    public StepLog(MazeGrid grid) {
+        this(grid.getRows(), grid.getColumns(), snapshot(grid));
+    }
+
+    private StepLog(int rows, int columns, byte[] initialPassages) {
+        this.rows = rows;
+        this.columns = columns;
+        this.initialPassages = initialPassages;
+        this.data = new byte[1024];
+        this.checkpointOffsets = new int[16];
+        this.checkpointCells = new int[16];
+        this.checkpointSteps = new long[16];
+    }
+
+    /**
+     * Pridá udalosť na koniec záznamu.
+     *
+     * @param kind Druh udalosti (KIND_COLOR, KIND_PASSAGE, KIND_CLEAR).
+     * @param cell Index bloku (pri KIND_CLEAR sa ignoruje).
+     * @param oldState Pôvodná farba bloku (poradie v Farby).
+     * @param newState Nová farba bloku, pri priechode smer (0 = doprava, 1 = dole).
+     * @param step Číslo kroku algoritmu, nesmie klesať.
+     */
+    public void append(int kind, int cell, int oldState, int newState, long step) {
+        if ((this.eventCount % BLOCK_SIZE) == 0) {
+            this.addCheckpoint();
+        }
+        this.ensureCapacity(16);
+        this.data[this.size++] = (byte)((kind << 6) | (oldState << 3) | newState);
+        if (kind != KIND_CLEAR) {
+            int delta = cell - this.lastCell;
+            this.writeVarint(((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL);
+            this.lastCell = cell;
+        }
+        this.writeVarint(step - this.lastStep);
+        this.lastStep = step;
+        this.eventCount++;
+    }
+
+    /**
+     * Dekóduje jeden blok udalostí od jeho kontrolného bodu.
+     *
+     * @param block Poradie bloku (udalosti block * BLOCK_SIZE a ďalšie).
+     * @param cells Pole aspoň BLOCK_SIZE prvkov pre indexy blokov.
+     * @param headers Pole aspoň BLOCK_SIZE prvkov pre hlavičky udalostí.
+     * @param steps Pole aspoň BLOCK_SIZE prvkov pre čísla krokov.
+     * @return Počet dekódovaných udalostí.
+     */
+    public int decodeBlock(int block, int[] cells, int[] headers, long[] steps) {
+        int count = Math.min(BLOCK_SIZE, this.eventCount - block * BLOCK_SIZE);
+        this.decode(this.checkpointOffsets[block], this.checkpointCells[block], this.checkpointSteps[block], count, cells, headers, steps);
+        return count;
+    }
+
+    /**
+     * Vracia druh udalosti z hlavičky.
+     */
+    public static int kindOf(int header) {
+        return header >>> 6;
+    }
+
+    /**
+     * Vracia pôvodnú farbu bloku z hlavičky.
+     */
+    public static int oldStateOf(int header) {
+        return (header >>> 3) & 7;
+    }
+
+    /**
+     * Vracia novú farbu bloku (pri priechode smer) z hlavičky.
+     */
+    public static int newStateOf(int header) {
+        return header & 7;
+    }
+
+    /**
+     * Vracia počet udalostí v zázname.
+     *
+     * @return Počet udalostí.
+     */
+    public int getEventCount() {
+        return this.eventCount;
+    }
+
+    /**
+     * Vracia veľkosť zakódovaných udalostí v bajtoch.
+     *
+     * @return Veľkosť dát v bajtoch.
+     */
+    public int getByteSize() {
+        return this.size;
+    }
+
+    /**
+     * Vracia počet riadkov mriežky záznamu.
+     *
+     * @return Počet riadkov.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Vracia počet stĺpcov mriežky záznamu.
+     *
+     * @return Počet stĺpcov.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Nastaví priechody mriežky podľa stavu na začiatku záznamu.
+     *
+     * @param grid Mriežka rovnakých rozmerov, jej doterajšie priechody sa zrušia.
+     */
+    public void restoreInitialPassages(MazeGrid grid) {
+        restorePassages(grid, this.initialPassages);
+    }
+
+    /**
+     * Zapíše záznam do prúdu.
+     *
+     * @param out Výstupný prúd, nezatvára sa.
+     * @throws IOException Ak zápis zlyhá.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(MAGIC);
+        output.writeInt(this.rows);
+        output.writeInt(this.columns);
+        output.writeInt(this.eventCount);
+        output.writeInt(this.initialPassages.length);
+        output.write(this.initialPassages);
+        output.writeInt(this.size);
+        output.write(this.data, 0, this.size);
+        output.flush();
+    }
+
+    /**
+     * Načíta záznam z prúdu a obnoví jeho kontrolné body.
+     *
+     * @param in Vstupný prúd, nezatvára sa.
+     * @return Načítaný záznam.
+     * @throws IOException Ak čítanie zlyhá alebo prúd neobsahuje záznam.
+     */
+    public static StepLog readFrom(InputStream in) throws IOException {
+        DataInputStream input = new DataInputStream(in);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Prúd neobsahuje záznam priebehu algoritmu");
+        }
+        int rows = input.readInt();
+        int columns = input.readInt();
+        int eventCount = input.readInt();
+        byte[] initialPassages = new byte[input.readInt()];
+        input.readFully(initialPassages);
+        byte[] events = new byte[input.readInt()];
+        input.readFully(events);
+
+        StepLog log = new StepLog(rows, columns, initialPassages);
+        log.data = events;
+        log.size = events.length;
+
+        // Kontrolné body sa obnovia jedným prechodom cez udalosti
+        int[] cells = new int[BLOCK_SIZE];
+        int[] headers = new int[BLOCK_SIZE];
+        long[] steps = new long[BLOCK_SIZE];
+        int offset = 0;
+        for (int first = 0; first < eventCount; first += BLOCK_SIZE) {
+            log.eventCount = first;
+            log.size = offset;
+            log.addCheckpoint();
+            int count = Math.min(BLOCK_SIZE, eventCount - first);
+            offset = log.decode(offset, log.lastCell, log.lastStep, count, cells, headers, steps);
+            log.lastCell = cells[count - 1];
+            log.lastStep = steps[count - 1];
+        }
+        log.eventCount = eventCount;
+        log.size = events.length;
+        return log;
+    }
+
+    /**
+     * Dekóduje count udalostí od pozície offset s daným posledným blokom a krokom.
+     *
+     * @return Pozícia za poslednou dekódovanou udalosťou.
+     */
+    private int decode(int offset, int cell, long step, int count, int[] cells, int[] headers, long[] steps) {
+        for (int i = 0; i < count; i++) {
+            int header = this.data[offset++] & 0xFF;
+            if (kindOf(header) != KIND_CLEAR) {
+                int zigzag = 0;
+                int shift = 0;
+                byte value;
+                do {
+                    value = this.data[offset++];
+                    zigzag |= (value & 0x7F) << shift;
+                    shift += 7;
+                } while (value < 0);
+                cell += (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            long delta = 0;
+            int shift = 0;
+            byte value;
+            do {
+                value = this.data[offset++];
+                delta |= (long)(value & 0x7F) << shift;
+                shift += 7;
+            } while (value < 0);
+            step += delta;
+
+            cells[i] = cell;
+            headers[i] = header;
+            steps[i] = step;
+        }
+        return offset;
+    }
+
+    /**
+     * Uloží kontrolný bod pre blok začínajúci aktuálnou udalosťou.
+     */
+    private void addCheckpoint() {
+        int block = this.eventCount / BLOCK_SIZE;
+        if (block == this.checkpointOffsets.length) {
+            this.checkpointOffsets = Arrays.copyOf(this.checkpointOffsets, block * 2);
+            this.checkpointCells = Arrays.copyOf(this.checkpointCells, block * 2);
+            this.checkpointSteps = Arrays.copyOf(this.checkpointSteps, block * 2);
+        }
+        this.checkpointOffsets[block] = this.size;
+        this.checkpointCells[block] = this.lastCell;
+        this.checkpointSteps[block] = this.lastStep;
+    }
+
+    /**
+     * Zapíše nezáporné číslo ako varint (7 bitov na bajt).
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            this.data[this.size++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.data[this.size++] = (byte)value;
+    }
+
+    /**
+     * Zväčší pole dát, ak sa doň nezmestí ďalších count bajtov.
+     */
+    private void ensureCapacity(int count) {
+        if (this.size + count > this.data.length) {
+            this.data = Arrays.copyOf(this.data, Math.max(this.data.length * 2, this.size + count));
+        }
+    }
+
+    /**
+     * Zapíše priechody mriežky, 2 bity na blok (1 = doprava, 2 = dole).
+     *
+     * @param grid Mriežka bludiska.
+     * @return Priechody mriežky.
+     */
+    public static byte[] snapshot(MazeGrid grid) {
+        int cellCount = grid.getCellCount();
+        byte[] passages = new byte[(cellCount + 3) >>> 2];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int bits = (grid.hasRightBorder(cell) ? 0 : 1) | (grid.hasDownBorder(cell) ? 0 : 2);
+            passages[cell >>> 2] |= (byte)(bits << ((cell & 3) << 1));
+        }
+        return passages;
+    }
+
+    /**
+     * Nastaví priechody mriežky podľa zápisu zo snapshot.
+     *
+     * @param grid Mriežka rovnakých rozmerov, jej doterajšie priechody sa zrušia.
+     * @param passages Priechody, 2 bity na blok.
+     */
+    public static void restorePassages(MazeGrid grid, byte[] passages) {
+        grid.clear();
+        int columns = grid.getColumns();
+        int cellCount = grid.getCellCount();
+        for (int cell = 0; cell < cellCount; cell++) {
+            int bits = (passages[cell >>> 2] >>> ((cell & 3) << 1)) & 3;
+            if ((bits & 1) != 0) {
+                grid.openPassage(cell, cell + 1);
+            }
+            if ((bits & 2) != 0) {
+                grid.openPassage(cell, cell + columns);
+            }
+        }
+    }
+}
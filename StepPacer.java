@@ -0,0 +1,145 @@
+/**
+ * Trieda StepPacer určuje rýchlosť vizualizácie ako počet krokov algoritmu na jeden
+ * vykreslený snímok. Po každých N krokoch algoritmus počká, kým plátno vykreslí
+ * ďalší snímok, takže dĺžka animácie závisí od počtu krokov, nie od dĺžky uspania.
+ *
+ * V automatickom režime sa N odvodí z veľkosti bludiska tak, aby animácia trvala
+ * približne zadaný čas. N = 0 znamená bez obmedzenia (algoritmus nečaká na snímky).
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.1
+ */
+public class StepPacer {
+    // Počet snímok za sekundu pri časovači plátna s periódou 25 ms
+    public static final int FRAMES_PER_SECOND = 40;
+    // Predvolená dĺžka animácie v automatickom režime
+    private static final int DEFAULT_TARGET_SECONDS = 20;
+    // Najdlhšie čakanie na snímok, kým sa predpokladá, že nikto nekreslí
+    private static final long MAX_FRAME_WAIT_MILLIS = 100;
+
+    private final Object lock = new Object();
+
+    private volatile int stepsPerFrame;
+    private volatile boolean automatic;
+    private volatile int targetSeconds;
+    // Počet blokov bludiska pre automatický režim
+    private volatile int cellCount;
+
+    // Kroky od posledného čakania na snímok, mení ich len vlákno algoritmu
+    private int stepsInFrame;
+    // Počet vykreslených snímok
+    private long frames;
+
+    /**
+     * Konštruktor vytvorí tempo bez obmedzenia počtu krokov na snímok.
+     */
+    public StepPacer() {
+        this.stepsPerFrame = 0;
+        this.automatic = false;
+        this.targetSeconds = DEFAULT_TARGET_SECONDS;
+    }
+
+    /**
+     * Oznámi koniec jedného kroku algoritmu. Po N krokoch počká na ďalší snímok.
+     * Volá ho vlákno algoritmu.
+     */
+    public void stepFinished() {
+        int limit = this.getStepsPerFrame();
+        if (limit <= 0 || ++this.stepsInFrame < limit) {
+            return;
+        }
+        this.stepsInFrame = 0;
+
+        synchronized (this.lock) {
+            if (this.frames == 0) {
+                // Plátno ešte nevykreslilo ani jeden snímok, nie je na čo čakať
+                return;
+            }
+            long target = this.frames + 1;
+            long deadline = System.currentTimeMillis() + MAX_FRAME_WAIT_MILLIS;
+            while (this.frames < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    // Nikto nekreslí (napr. bez okna), algoritmus pokračuje
+                    return;
+                }
+                try {
+                    this.lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Oznámi, že plátno vykreslilo snímok. Volá ho vlákno Swingu.
+     */
+    public void frameRendered() {
+        synchronized (this.lock) {
+            this.frames++;
+            this.lock.notifyAll();
+        }
+    }
+
+    /**
+     * Nastaví pevný počet krokov na snímok a vypne automatický režim.
+     *
+     * @param stepsPerFrame Počet krokov na snímok, 0 = bez obmedzenia.
+     */
+    public void setStepsPerFrame(int stepsPerFrame) {
+        this.stepsPerFrame = Math.max(0, stepsPerFrame);
+        this.automatic = false;
+    }
+
+    /**
+     * Zapne alebo vypne automatický režim.
+     *
+     * @param automatic true, ak sa má počet krokov na snímok odvodiť z veľkosti bludiska.
+     */
+    public void setAutomatic(boolean automatic) {
+        this.automatic = automatic;
+    }
+
+    /**
+     * Vracia true, ak je zapnutý automatický režim.
+     *
+     * @return true pri automatickom režime.
+     */
+    public boolean isAutomatic() {
+        return this.automatic;
+    }
+
+    /**
+     * Nastaví dĺžku animácie, o ktorú sa snaží automatický režim.
+     *
+     * @param targetSeconds Dĺžka animácie v sekundách.
+     */
+    public void setTargetSeconds(int targetSeconds) {
+        this.targetSeconds = Math.max(1, targetSeconds);
+    }
+
+    /**
+     * Nastaví počet blokov bludiska, z ktorého vychádza automatický režim.
+     *
+     * @param cellCount Počet blokov bludiska.
+     */
+    public void setCellCount(int cellCount) {
+        this.cellCount = cellCount;
+    }
+
+    /**
+     * Vracia aktuálny počet krokov na snímok. V automatickom režime približne
+     * počet blokov / (dĺžka animácie * snímky za sekundu), aspoň 1.
+     *
+     * @return Počet krokov na snímok, 0 = bez obmedzenia.
+     */
+    public int getStepsPerFrame() {
+        if (this.automatic) {
+            long frameBudget = (long)this.targetSeconds * FRAMES_PER_SECOND;
+            return (int)Math.max(1, (this.cellCount + frameBudget - 1) / frameBudget);
+        }
+        return this.stepsPerFrame;
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.Arrays;
+
+/**
+ * Trieda StepRecorder je pozorovateľ, ktorý zapisuje priebeh algoritmov do záznamu StepLog.
+ * Pri zmene farby si pamätá pôvodnú farbu bloku, takže sa záznam dá prehrávať aj dozadu.
+ * Zmeny farby, ktoré farbu bloku nemenia, sa nezapisujú.
+ *
+ * Záznam začína priechodmi mriežky v čase vytvorenia a predpokladá, že všetky bloky sú
+ * vtedy čierne.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.2
+ */
+public class StepRecorder implements MazeListener {
+    private final MazeGrid grid;
+    private final int columns;
+    private final StepLog log;
+    // Aktuálna farba každého bloku (poradie v Farby)
+    private final byte[] state;
+    // Počet ukončených krokov algoritmov
+    private long step;
+
+    /**
+     * Konštruktor začne záznam od aktuálnych priechodov mriežky.
+     *
+     * @param grid Mriežka bludiska, ktorého priebeh sa zaznamenáva.
+     */
+    public StepRecorder(MazeGrid grid) {
+        this.grid = grid;
+        this.columns = grid.getColumns();
+        this.log = new StepLog(grid);
+        this.state = new byte[grid.getCellCount()];
+        Arrays.fill(this.state, (byte)Farby.CIERNA.ordinal());
+        this.step = 0;
+    }
+
+    @Override
+    public synchronized void cellColorChanged(int cell, Farby farba) {
+        int oldState = this.state[cell];
+        int newState = farba.ordinal();
+        if (oldState != newState) {
+            this.state[cell] = (byte)newState;
+            this.log.append(StepLog.KIND_COLOR, cell, oldState, newState, this.step);
+        }
+    }
+
+    @Override
+    public synchronized void passageOpened(int cell, int neighbour) {
+        this.appendPassage(cell, neighbour, 0);
+    }
+
+    @Override
+    public synchronized void passageClosed(int cell, int neighbour) {
+        this.appendPassage(cell, neighbour, 1);
+    }
+
+    @Override
+    public synchronized void mazeCleared() {
+        Arrays.fill(this.state, (byte)Farby.CIERNA.ordinal());
+        this.log.append(StepLog.KIND_CLEAR, 0, 0, 0, this.step);
+    }
+
+    @Override
+    public synchronized void colorsReset() {
+        // Pôvodné farby sa musia dať obnoviť, preto sa zapíše každý zmenený blok
+        int black = Farby.CIERNA.ordinal();
+        for (int cell = 0; cell < this.state.length; cell++) {
+            if (this.state[cell] != black) {
+                this.log.append(StepLog.KIND_COLOR, cell, this.state[cell], black, this.step);
+                this.state[cell] = (byte)black;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void wallsChanged() {
+        // Záznam nemá hromadnú udalosť, zapíše sa vyčistenie, aktuálne priechody mriežky
+        // a obnovenie farieb, takže sa dá prehrať aj dozadu
+        this.log.append(StepLog.KIND_CLEAR, 0, 0, 0, this.step);
+        int black = Farby.CIERNA.ordinal();
+        for (int cell = 0; cell < this.state.length; cell++) {
+            if (!this.grid.hasRightBorder(cell)) {
+                this.appendPassage(cell, cell + 1, 0);
+            }
+            if (!this.grid.hasDownBorder(cell)) {
+                this.appendPassage(cell, cell + this.columns, 0);
+            }
+        }
+        for (int cell = 0; cell < this.state.length; cell++) {
+            if (this.state[cell] != black) {
+                this.log.append(StepLog.KIND_COLOR, cell, black, this.state[cell], this.step);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stepFinished() {
+        this.step++;
+    }
+
+    /**
+     * Vracia záznam. Kým je pozorovateľ pripojený, záznam sa môže ďalej meniť.
+     *
+     * @return Záznam priebehu algoritmov.
+     */
+    public synchronized StepLog getLog() {
+        return this.log;
+    }
+
+    /**
+     * Zapíše priechod pri menšom z blokov, smer 0 = doprava, 1 = dole.
+     * Pôvodný stav udalosti je 0 pri otvorení a 1 pri uzavretí priechodu.
+     */
+    private void appendPassage(int cell, int neighbour, int closed) {
+        int owner = Math.min(cell, neighbour);
+        int direction = Math.abs(cell - neighbour) == this.columns ? 1 : 0;
+        this.log.append(StepLog.KIND_PASSAGE, owner, closed, direction, this.step);
+    }
+}
@@ -0,0 +1,293 @@
+import java.util.Arrays;
+
+/**
+ * Trieda StepReplayer prehráva záznam StepLog dopredu aj dozadu a umožňuje
+ * skočiť na ľubovoľnú udalosť. Zmeny priechodov zapisuje do mriežky a všetky
+ * zmeny oznamuje cieľovému pozorovateľovi (napr. vykresľovaču).
+ *
+ * Udalosti sa dekódujú po blokoch od kontrolných bodov záznamu a posledný blok
+ * sa pamätá, takže krokovanie okolo jednej pozície nedekóduje záznam znova.
+ *
+ * Pri prvom prechode záznamom sa v pravidelných odstupoch uloží stav (farby blokov
+ * a priechody). Skok na vzdialenú pozíciu obnoví najbližší uložený stav pred ňou,
+ * zvyšné udalosti zapíše len do mriežky a výsledok oznámi pozorovateľovi naraz, takže
+ * skok stojí O(počet blokov) bez ohľadu na dĺžku záznamu. Odstup je aspoň počet blokov,
+ * uložené stavy preto zaberú najviac asi 1,25 bajtu na udalosť. Tak sa vráti aj krok
+ * dozadu cez vyčistenie bludiska, ktorý sa priamo vrátiť nedá.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.3
+ */
+public class StepReplayer {
+    private static final Farby[] FARBY = Farby.values();
+    private static final byte BLACK = (byte)Farby.CIERNA.ordinal();
+
+    private final StepLog log;
+    private final MazeGrid grid;
+    private final MazeListener target;
+
+    // Dekódovaný blok udalostí
+    private final int[] cells;
+    private final int[] headers;
+    private final long[] steps;
+    private int cachedBlock;
+
+    // Aktuálna farba každého bloku (poradie v Farby)
+    private final byte[] states;
+    // Počet udalostí medzi uloženými stavmi, násobok StepLog.BLOCK_SIZE
+    private final int snapshotInterval;
+    // Farby a priechody na pozícii i * snapshotInterval, uložené len pre i < snapshotCount
+    private final byte[][] snapshotStates;
+    private final byte[][] snapshotPassages;
+    private int snapshotCount;
+
+    // Počet prehraných udalostí
+    private int position;
+
+    /**
+     * Konštruktor nastaví mriežku na začiatok záznamu.
+     *
+     * @param log Záznam, ktorý sa má prehrávať.
+     * @param grid Mriežka rovnakých rozmerov ako záznam.
+     * @param target Pozorovateľ, ktorému sa oznamujú prehrané zmeny.
+     */
+    public StepReplayer(StepLog log, MazeGrid grid, MazeListener target) {
+        if (log.getRows() != grid.getRows() || log.getColumns() != grid.getColumns()) {
+            throw new IllegalArgumentException("Záznam " + log.getRows() + "x" + log.getColumns()
+                + " nezodpovedá bludisku " + grid.getRows() + "x" + grid.getColumns());
+        }
+        this.log = log;
+        this.grid = grid;
+        this.target = target;
+        this.cells = new int[StepLog.BLOCK_SIZE];
+        this.headers = new int[StepLog.BLOCK_SIZE];
+        this.steps = new long[StepLog.BLOCK_SIZE];
+        this.cachedBlock = -1;
+        this.states = new byte[grid.getCellCount()];
+        int blocks = (grid.getCellCount() + StepLog.BLOCK_SIZE - 1) / StepLog.BLOCK_SIZE;
+        this.snapshotInterval = Math.max(1, blocks) * StepLog.BLOCK_SIZE;
+        this.snapshotStates = new byte[log.getEventCount() / this.snapshotInterval + 1][];
+        this.snapshotPassages = new byte[this.snapshotStates.length][];
+        this.snapshotCount = 0;
+        this.reset();
+    }
+
+    /**
+     * Vráti mriežku a pozorovateľa na začiatok záznamu.
+     */
+    public void reset() {
+        this.log.restoreInitialPassages(this.grid);
+        // Jedna hromadná udalosť namiesto udalosti pre každý priechod, ktorých je takmer toľko ako blokov
+        this.target.mazeCleared();
+        this.target.wallsChanged();
+        Arrays.fill(this.states, BLACK);
+        this.position = 0;
+        this.saveSnapshot();
+    }
+
+    /**
+     * Prehrá nasledujúcu udalosť.
+     *
+     * @return true, ak sa udalosť prehrala, false na konci záznamu.
+     */
+    public boolean stepForward() {
+        if (this.position >= this.log.getEventCount()) {
+            return false;
+        }
+        int index = this.load(this.position);
+        this.apply(this.cells[index], this.headers[index], true, true);
+        this.position++;
+        this.saveSnapshot();
+        return true;
+    }
+
+    /**
+     * Vráti poslednú prehranú udalosť.
+     *
+     * @return true, ak sa udalosť vrátila, false na začiatku záznamu.
+     */
+    public boolean stepBackward() {
+        if (this.position == 0) {
+            return false;
+        }
+        int index = this.load(this.position - 1);
+        int header = this.headers[index];
+        if (StepLog.kindOf(header) == StepLog.KIND_CLEAR) {
+            // Stav pred vyčistením sa obnoví z uloženého stavu
+            this.jump(this.position - 1);
+        } else {
+            this.apply(this.cells[index], header, false, true);
+            this.position--;
+        }
+        return true;
+    }
+
+    /**
+     * Prehrá najviac count udalostí, pri zápornom počte dozadu.
+     *
+     * @param count Počet udalostí, záporný pre prehrávanie dozadu.
+     * @return Počet skutočne prehraných udalostí.
+     */
+    public int advance(int count) {
+        int done = 0;
+        if (count > 0) {
+            while (done < count && this.stepForward()) {
+                done++;
+            }
+        } else {
+            while (done < -count && this.stepBackward()) {
+                done++;
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Presunie prehrávanie na danú pozíciu. Blízka pozícia sa dosiahne krokovaním,
+     * na vzdialenú sa skočí z najbližšieho uloženého stavu a zmena sa oznámi naraz.
+     *
+     * @param newPosition Počet prehraných udalostí po presune.
+     */
+    public void seek(int newPosition) {
+        newPosition = Math.max(0, Math.min(newPosition, this.log.getEventCount()));
+        if (Math.abs(newPosition - this.position) <= StepLog.BLOCK_SIZE) {
+            this.advance(newPosition - this.position);
+        } else {
+            this.jump(newPosition);
+        }
+    }
+
+    /**
+     * Vracia počet prehraných udalostí.
+     *
+     * @return Aktuálna pozícia v zázname.
+     */
+    public int getPosition() {
+        return this.position;
+    }
+
+    /**
+     * Vracia počet udalostí v zázname.
+     *
+     * @return Počet udalostí.
+     */
+    public int getEventCount() {
+        return this.log.getEventCount();
+    }
+
+    /**
+     * Vracia číslo kroku algoritmu poslednej prehranej udalosti.
+     *
+     * @return Číslo kroku, 0 na začiatku záznamu.
+     */
+    public long getStep() {
+        if (this.position == 0) {
+            return 0;
+        }
+        return this.steps[this.load(this.position - 1)];
+    }
+
+    /**
+     * Vracia prehrávaný záznam.
+     *
+     * @return Záznam.
+     */
+    public StepLog getLog() {
+        return this.log;
+    }
+
+    /**
+     * Presunie prehrávanie na pozíciu bez oznamovania jednotlivých udalostí. Začne
+     * od najbližšieho uloženého stavu pred cieľom, ak aktuálna pozícia nie je bližšie,
+     * a výsledok oznámi ako vyčistenie, hromadnú zmenu priechodov a farby blokov.
+     */
+    private void jump(int newPosition) {
+        int snapshot = Math.min(newPosition / this.snapshotInterval, this.snapshotCount - 1);
+        int snapshotPosition = snapshot * this.snapshotInterval;
+        if (newPosition < this.position || snapshotPosition > this.position) {
+            StepLog.restorePassages(this.grid, this.snapshotPassages[snapshot]);
+            System.arraycopy(this.snapshotStates[snapshot], 0, this.states, 0, this.states.length);
+            this.position = snapshotPosition;
+        }
+        while (this.position < newPosition) {
+            int index = this.load(this.position);
+            this.apply(this.cells[index], this.headers[index], true, false);
+            this.position++;
+            this.saveSnapshot();
+        }
+
+        this.target.mazeCleared();
+        this.target.wallsChanged();
+        for (int cell = 0; cell < this.states.length; cell++) {
+            if (this.states[cell] != BLACK) {
+                this.target.cellColorChanged(cell, FARBY[this.states[cell]]);
+            }
+        }
+    }
+
+    /**
+     * Uloží stav, ak je pozícia na hranici odstupu a stav na nej ešte nie je uložený.
+     * Prehrávanie dopredu prechádza hranice v poradí, uložené stavy preto idú za sebou.
+     */
+    private void saveSnapshot() {
+        if (this.position % this.snapshotInterval != 0) {
+            return;
+        }
+        int snapshot = this.position / this.snapshotInterval;
+        if (snapshot == this.snapshotCount && snapshot < this.snapshotStates.length) {
+            this.snapshotStates[snapshot] = this.states.clone();
+            this.snapshotPassages[snapshot] = StepLog.snapshot(this.grid);
+            this.snapshotCount++;
+        }
+    }
+
+    /**
+     * Zabezpečí, že je dekódovaný blok s danou udalosťou, a vráti jej index v bloku.
+     */
+    private int load(int event) {
+        int block = event / StepLog.BLOCK_SIZE;
+        if (block != this.cachedBlock) {
+            this.log.decodeBlock(block, this.cells, this.headers, this.steps);
+            this.cachedBlock = block;
+        }
+        return event % StepLog.BLOCK_SIZE;
+    }
+
+    /**
+     * Prehrá udalosť dopredu alebo ju vráti. Pri notify false sa zmena zapíše len
+     * do mriežky a farieb a pozorovateľovi sa neoznámi.
+     */
+    private void apply(int cell, int header, boolean forward, boolean notify) {
+        switch (StepLog.kindOf(header)) {
+            case StepLog.KIND_COLOR:
+                int state = forward ? StepLog.newStateOf(header) : StepLog.oldStateOf(header);
+                this.states[cell] = (byte)state;
+                if (notify) {
+                    this.target.cellColorChanged(cell, FARBY[state]);
+                }
+                break;
+            case StepLog.KIND_PASSAGE:
+                int neighbour = StepLog.newStateOf(header) == 0 ? cell + 1 : cell + this.grid.getColumns();
+                // Pôvodný stav 0 znamená otvorenie priechodu
+                if ((StepLog.oldStateOf(header) == 0) == forward) {
+                    this.grid.openPassage(cell, neighbour);
+                    if (notify) {
+                        this.target.passageOpened(cell, neighbour);
+                    }
+                } else {
+                    this.grid.closePassage(cell, neighbour);
+                    if (notify) {
+                        this.target.passageClosed(cell, neighbour);
+                    }
+                }
+                break;
+            default:
+                this.grid.clear();
+                Arrays.fill(this.states, BLACK);
+                if (notify) {
+                    this.target.mazeCleared();
+                }
+                break;
+        }
+    }
+}
@@ -79,10 +79,6 @@ public class Stvorec {
     private void nakresli() {
         Platno canvas = Platno.dajPlatno("Labyrint", "Labyrint", this.velkostPlatnaX, this.velkostPlatnaY);
 
-        canvas.erase(this.fillObjekt);
-        canvas.erase(this.borderObjekt);
-
-        
         Rectangle2D.Double rectangle = new Rectangle2D.Double(this.lavyHornyX, this.lavyHornyY, this.strana, this.strana);
 
         Path2D.Double path = new Path2D.Double();
@@ -0,0 +1,91 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Trieda WilsonGenerator generuje bludisko Wilsonovým algoritmom.
+ * Z každého bloku mimo stromu sa spustí náhodná prechádzka, kým nenarazí na strom,
+ * a jej cesta bez slučiek (loop-erased random walk) sa pripojí k stromu.
+ * Výsledok je rovnomerne náhodná kostra mriežky, teda bludisko bez skreslenia
+ * typického pre DFS alebo Prima. Slučky sa mažú prepisovaním smeru v poli next.
+ *
+ * @autor Denis Úradník
+ * @verzia 0.0.2
+ */
+public class WilsonGenerator implements MazeGenerator {
+
+    @Override
+    public void generate(MazeGrid grid, int startCell, long seed, MazeListener listener) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cellCount = grid.getCellCount();
+        int columns = grid.getColumns();
+        int rows = grid.getRows();
+
+        long[] inTree = new long[(cellCount + 63) >>> 6];
+        // Posledný smer prechádzky z každého bloku
+        int[] next = new int[cellCount];
+        int[] candidates = new int[4];
+
+        inTree[startCell >>> 6] |= 1L << startCell;
+        if (listener != null) {
+            listener.cellColorChanged(startCell, Farby.MODRA);
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (isSet(inTree, cell)) {
+                continue;
+            }
+
+            // Náhodná prechádzka, kým nenarazí na strom
+            int current = cell;
+            int walked = 0;
+            while (!isSet(inTree, current)) {
+                // Prechádzka nie je krok algoritmu a môže byť veľmi dlhá, zrušenie sa overí priebežne
+                if ((++walked & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Generovanie bolo zrušené");
+                }
+                int row = current / columns;
+                int column = current - row * columns;
+                int count = 0;
+                if (row > 0) {
+                    candidates[count++] = current - columns;
+                }
+                if (column > 0) {
+                    candidates[count++] = current - 1;
+                }
+                if (row < rows - 1) {
+                    candidates[count++] = current + columns;
+                }
+                if (column < columns - 1) {
+                    candidates[count++] = current + 1;
+                }
+                next[current] = candidates[random.nextInt(count)];
+                current = next[current];
+            }
+
+            // Pripojenie cesty bez slučiek k stromu
+            current = cell;
+            while (!isSet(inTree, current)) {
+                inTree[current >>> 6] |= 1L << current;
+                grid.openPassage(current, next[current]);
+                if (listener != null) {
+                    listener.passageOpened(current, next[current]);
+                    listener.cellColorChanged(current, Farby.MODRA);
+                    listener.stepFinished();
+                }
+                current = next[current];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Wilson";
+    }
+
+    /**
+     * Vracia true, ak je v bitovej množine nastavený daný blok.
+     */
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+}